@@ -0,0 +1,240 @@
+/*
+ * This file is part of unnamed, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2017, Jamie Mansfield <https://www.jamierocks.uk/>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package uk.jamierocks.mc.unnamed.processor;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedOptions;
+import javax.annotation.processing.SupportedSourceVersion;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+
+/**
+ * Generates the holders of Unnamed's content, from the definitions bundled with the mod,
+ * into the package annotated with {@code GenerateHolders}.
+ *
+ * <ul>
+ *     <li>{@code UnnamedBlocks}, a typed field for each block</li>
+ *     <li>{@code UnnamedItems}, a typed field for each item</li>
+ *     <li>{@code UnnamedContent}, which binds the holders</li>
+ * </ul>
+ *
+ * The path to the definitions is given by the {@code unnamed.definitions} option.
+ */
+@SupportedAnnotationTypes(HolderProcessor.ANNOTATION)
+@SupportedOptions(HolderProcessor.DEFINITIONS_OPTION)
+@SupportedSourceVersion(SourceVersion.RELEASE_8)
+public final class HolderProcessor extends AbstractProcessor {
+
+    static final String ANNOTATION = "uk.jamierocks.mc.unnamed.init.GenerateHolders";
+    static final String DEFINITIONS_OPTION = "unnamed.definitions";
+
+    private static final String BLOCK = "uk.jamierocks.mc.unnamed.block.UnnamedBlock";
+    private static final String CONNECTED_BLOCK = "uk.jamierocks.mc.unnamed.block.ConnectedBlock";
+    private static final String VARIANT_BLOCK = "uk.jamierocks.mc.unnamed.block.VariantBlock";
+    private static final String ITEM = "uk.jamierocks.mc.unnamed.item.UnnamedItem";
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (final TypeElement annotation : annotations) {
+            for (final Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                if (!(element instanceof PackageElement)) {
+                    this.processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Only a package can hold content", element);
+                    continue;
+                }
+                this.generate((PackageElement) element);
+            }
+        }
+        return true;
+    }
+
+    private void generate(PackageElement element) {
+        final String path = this.processingEnv.getOptions().get(DEFINITIONS_OPTION);
+        if (path == null) {
+            this.processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "The definitions must be given with -A" + DEFINITIONS_OPTION + "=<path>", element);
+            return;
+        }
+
+        // the type of each block and item, by identifier
+        final Map<String, String> blocks = new LinkedHashMap<>();
+        final Map<String, String> items = new LinkedHashMap<>();
+        try (final Reader reader = new InputStreamReader(new FileInputStream(path), StandardCharsets.UTF_8)) {
+            final JsonObject definitions = new JsonParser().parse(reader).getAsJsonObject();
+            if (definitions.has("blocks")) {
+                for (final JsonElement block : definitions.getAsJsonArray("blocks")) {
+                    final JsonObject object = block.getAsJsonObject();
+                    blocks.put(object.get("identifier").getAsString(), getBlockType(object));
+                }
+            }
+            if (definitions.has("items")) {
+                for (final JsonElement item : definitions.getAsJsonArray("items")) {
+                    items.put(item.getAsString(), ITEM);
+                }
+            }
+        } catch (final IOException | RuntimeException ex) {
+            this.processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Failed to read the definitions of " + path + ": " + ex, element);
+            return;
+        }
+
+        for (final String identifier : blocks.keySet()) {
+            this.checkIdentifier(element, identifier);
+        }
+        for (final String identifier : items.keySet()) {
+            this.checkIdentifier(element, identifier);
+        }
+
+        final String pkg = element.getQualifiedName().toString();
+        try {
+            this.writeHolder(element, pkg, "UnnamedBlocks", "block", "net.minecraft.block.Block", blocks);
+            this.writeHolder(element, pkg, "UnnamedItems", "item", "net.minecraft.item.Item", items);
+            this.writeContent(element, pkg);
+        } catch (final IOException ex) {
+            this.processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Failed to write the holders: " + ex, element);
+        }
+    }
+
+    private static String getBlockType(JsonObject block) {
+        if (block.has("variants")) {
+            return VARIANT_BLOCK;
+        }
+        if (block.has("connectedTextures") && block.get("connectedTextures").getAsBoolean()) {
+            return CONNECTED_BLOCK;
+        }
+        return BLOCK;
+    }
+
+    private void checkIdentifier(Element element, String identifier) {
+        if (!SourceVersion.isName(identifier)) {
+            this.processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "The identifier " + identifier + " can't be held, as it isn't a valid field name", element);
+        }
+    }
+
+    private void writeHolder(Element element, String pkg, String name, String kind, String registryType,
+            Map<String, String> content) throws IOException {
+        final String registry = getSimpleName(registryType);
+        try (final PrintWriter out = new PrintWriter(this.processingEnv.getFiler().createSourceFile(pkg + "." + name, element).openWriter())) {
+            out.println("// generated by " + HolderProcessor.class.getName() + ", from " + DEFINITIONS_OPTION);
+            out.println("package " + pkg + ";");
+            out.println();
+            out.println("import " + registryType + ";");
+            out.println("import net.minecraft.util.ResourceLocation;");
+            for (final String type : new TreeSet<>(content.values())) {
+                out.println("import " + type + ";");
+            }
+            out.println("import uk.jamierocks.mc.unnamed.util.Constants;");
+            out.println();
+            out.println("/**");
+            out.println(" * The " + kind + "s of Unnamed, generated from its definitions.");
+            out.println(" *");
+            out.println(" * The fields are set as the class is initialised, which must be after the " + kind + "s");
+            out.println(" * are registered - see {@link UnnamedContent#bind()}.");
+            out.println(" */");
+            out.println("public final class " + name + " {");
+            out.println();
+            for (final Map.Entry<String, String> entry : content.entrySet()) {
+                final String type = getSimpleName(entry.getValue());
+                out.println("    public static final " + type + " " + entry.getKey() + " = get(\"" + entry.getKey() + "\", " + type
+                        + ".class);");
+            }
+            out.println();
+            out.println("    static void bind() {");
+            out.println("        // initialising the class sets the fields");
+            out.println("    }");
+            out.println();
+            out.println("    private static <T> T get(String identifier, Class<T> type) {");
+            out.println("        final " + registry + " value = " + registry
+                    + ".REGISTRY.getObject(new ResourceLocation(Constants.MOD_ID, identifier));");
+            out.println("        if (!type.isInstance(value)) {");
+            out.println("            throw new IllegalStateException(\"The " + kind + " \" + identifier + \" isn't registered as a \"");
+            out.println("                    + type.getSimpleName() + \"!\");");
+            out.println("        }");
+            out.println("        return type.cast(value);");
+            out.println("    }");
+            out.println();
+            out.println("    private " + name + "() {");
+            out.println("    }");
+            out.println();
+            out.println("}");
+        }
+    }
+
+    private void writeContent(Element element, String pkg) throws IOException {
+        try (final PrintWriter out = new PrintWriter(this.processingEnv.getFiler().createSourceFile(pkg + ".UnnamedContent", element).openWriter())) {
+            out.println("// generated by " + HolderProcessor.class.getName() + ", from " + DEFINITIONS_OPTION);
+            out.println("package " + pkg + ";");
+            out.println();
+            out.println("/**");
+            out.println(" * The holders of Unnamed's content, {@link UnnamedBlocks} and {@link UnnamedItems},");
+            out.println(" * generated from its definitions.");
+            out.println(" */");
+            out.println("public final class UnnamedContent {");
+            out.println();
+            out.println("    /**");
+            out.println("     * Binds the holders to the registered content, which must be once every block and");
+            out.println("     * item is registered.");
+            out.println("     *");
+            out.println("     * @throws IllegalStateException Should any content not be registered");
+            out.println("     */");
+            out.println("    public static void bind() {");
+            out.println("        UnnamedBlocks.bind();");
+            out.println("        UnnamedItems.bind();");
+            out.println("    }");
+            out.println();
+            out.println("    private UnnamedContent() {");
+            out.println("    }");
+            out.println();
+            out.println("}");
+        }
+    }
+
+    private static String getSimpleName(String type) {
+        return type.substring(type.lastIndexOf('.') + 1);
+    }
+
+}
@@ -0,0 +1,157 @@
+/*
+ * This file is part of unnamed, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2017, Jamie Mansfield <https://www.jamierocks.uk/>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package uk.jamierocks.mc.unnamed.benchmark;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares the results of a run of the benchmarks to a stored baseline, both in
+ * JMH's JSON format, writing a report and failing should any benchmark regress.
+ *
+ * A benchmark has regressed if it has become more than 10%
+ * slower, beyond the error of both runs, or allocates more than it did.
+ *
+ * Usage: {@code BenchmarkComparison <baseline.json> <results.json> <report.txt>}
+ */
+public final class BenchmarkComparison {
+
+    private static final double TIME_TOLERANCE = 0.10;
+    private static final double ALLOCATION_TOLERANCE = 8.0;
+    private static final String ALLOCATION_METRIC = "\u00b7gc.alloc.rate.norm";
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 3) {
+            System.err.println("Usage: BenchmarkComparison <baseline.json> <results.json> <report.txt>");
+            System.exit(2);
+        }
+
+        final File baselineFile = new File(args[0]);
+        if (!baselineFile.exists()) {
+            System.out.println("There is no baseline to compare to, store one with 'gradlew jmhBaseline'.");
+            return;
+        }
+        final Map<String, Result> baseline = read(baselineFile);
+        final Map<String, Result> results = read(new File(args[1]));
+
+        int regressions = 0;
+        try (final PrintStream report = new PrintStream(new File(args[2]), StandardCharsets.UTF_8.name())) {
+            report.printf("%-72s %14s %14s %8s %12s %12s%n", "benchmark", "baseline", "current", "change", "alloc base",
+                    "alloc now");
+            for (final Map.Entry<String, Result> entry : results.entrySet()) {
+                final Result current = entry.getValue();
+                final Result base = baseline.get(entry.getKey());
+                if (base == null) {
+                    report.printf("%-72s %14s %14.3f %8s %12s %12.1f  NEW%n", entry.getKey(), "-", current.score, "-", "-",
+                            current.allocation);
+                    continue;
+                }
+
+                final double change = (current.score - base.score) / base.score;
+                final boolean slower = change > TIME_TOLERANCE && current.score - base.score > current.error + base.error;
+                final boolean allocates = current.allocation > base.allocation + ALLOCATION_TOLERANCE;
+                if (slower || allocates) {
+                    regressions++;
+                }
+                report.printf("%-72s %14.3f %14.3f %+7.1f%% %12.1f %12.1f  %s%n", entry.getKey(), base.score, current.score,
+                        change * 100, base.allocation, current.allocation,
+                        slower && allocates ? "SLOWER, ALLOCATES" : slower ? "SLOWER" : allocates ? "ALLOCATES" : "");
+            }
+            for (final String missing : baseline.keySet()) {
+                if (!results.containsKey(missing)) {
+                    report.printf("%-72s  MISSING%n", missing);
+                }
+            }
+        }
+
+        for (final String line : Files.readAllLines(new File(args[2]).toPath(), StandardCharsets.UTF_8)) {
+            System.out.println(line);
+        }
+        if (regressions > 0) {
+            System.err.println(regressions + " benchmark(s) regressed compared to the baseline.");
+            System.exit(1);
+        }
+    }
+
+    private static Map<String, Result> read(File file) throws IOException {
+        final Map<String, Result> results = new TreeMap<>();
+        try (final Reader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            final JsonArray array = new JsonParser().parse(reader).getAsJsonArray();
+            for (final JsonElement element : array) {
+                final JsonObject benchmark = element.getAsJsonObject();
+                final StringBuilder name = new StringBuilder(benchmark.get("benchmark").getAsString());
+                if (benchmark.has("params")) {
+                    // sorted, so the name is the same however JMH orders them
+                    final Map<String, String> params = new TreeMap<>();
+                    for (final Map.Entry<String, JsonElement> param : benchmark.getAsJsonObject("params").entrySet()) {
+                        params.put(param.getKey(), param.getValue().getAsString());
+                    }
+                    params.forEach((key, value) -> name.append(':').append(key).append('=').append(value));
+                }
+
+                final JsonObject primary = benchmark.getAsJsonObject("primaryMetric");
+                final JsonObject secondary = benchmark.getAsJsonObject("secondaryMetrics");
+                final double allocation = secondary != null && secondary.has(ALLOCATION_METRIC)
+                        ? secondary.getAsJsonObject(ALLOCATION_METRIC).get("score").getAsDouble() : 0;
+                final JsonElement error = primary.get("scoreError");
+                results.put(name.toString(), new Result(primary.get("score").getAsDouble(),
+                        error != null && error.isJsonPrimitive() && error.getAsJsonPrimitive().isNumber() ? error.getAsDouble() : 0,
+                        allocation));
+            }
+        }
+        return results;
+    }
+
+    private static final class Result {
+
+        private final double score;
+        private final double error;
+        // in bytes per operation
+        private final double allocation;
+
+        private Result(double score, double error, double allocation) {
+            this.score = score;
+            this.error = error;
+            this.allocation = allocation;
+        }
+
+    }
+
+    private BenchmarkComparison() {
+    }
+
+}
@@ -0,0 +1,76 @@
+/*
+ * This file is part of unnamed, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2017, Jamie Mansfield <https://www.jamierocks.uk/>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package uk.jamierocks.mc.unnamed.block;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the work done when building a block with {@link UnnamedBlock.Builder},
+ * and resolving its drops.
+ *
+ * Constructing the block itself requires a running game, as Forge's registry names
+ * do, so that isn't included.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BuilderBenchmark {
+
+    @Benchmark
+    public MultiDropBehaviour buildMultiDrop() {
+        return MultiDropBehaviour.builder()
+                .pool().fortune()
+                .entry(() -> null, 1, 3, 1)
+                .pool()
+                .entry(() -> null, 1)
+                .nothing(19)
+                .build();
+    }
+
+    @Benchmark
+    public DropTable resolveRanged() {
+        return DropTable.resolve(null, ItemDropBehaviour.Fortune.of(() -> null, 1, 3), 3);
+    }
+
+    @Benchmark
+    public DropTable resolveTabulated() {
+        return DropTable.resolve(null, ItemDropBehaviour.Fortune.tabulated(() -> null, 1, 3), 3);
+    }
+
+}
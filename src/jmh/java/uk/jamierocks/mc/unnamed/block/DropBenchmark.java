@@ -0,0 +1,125 @@
+/*
+ * This file is part of unnamed, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2017, Jamie Mansfield <https://www.jamierocks.uk/>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package uk.jamierocks.mc.unnamed.block;
+
+import net.minecraft.util.math.MathHelper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of sampling the drops of a block, as done on every break.
+ *
+ * Blocks themselves can't be constructed outside of a running game, so the drop
+ * tables are resolved without one - which is all that they use it for.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DropBenchmark {
+
+    private static final int MAX_FORTUNE = 3;
+
+    @Param({ "0", "3" })
+    public int fortune;
+
+    private final Random random = new Random(0L);
+    private ItemDropBehaviour ranged;
+    private ItemDropBehaviour.Fortune fortuneBehaviour;
+    private DropTable rangedTable;
+    private DropTable fortuneTable;
+    private DropTable tabulatedTable;
+    private ExpDropBehaviour exp;
+    private AliasTable multiDrop;
+
+    @Setup
+    public void setup() {
+        this.ranged = ItemDropBehaviour.of(() -> null, 1, 3);
+        this.fortuneBehaviour = ItemDropBehaviour.Fortune.of(() -> null, 1, 3);
+        this.rangedTable = DropTable.resolve(null, this.ranged, MAX_FORTUNE);
+        this.fortuneTable = DropTable.resolve(null, this.fortuneBehaviour, MAX_FORTUNE);
+        this.tabulatedTable = DropTable.resolve(null, ItemDropBehaviour.Fortune.tabulated(() -> null, 1, 3), MAX_FORTUNE);
+        this.exp = ExpDropBehaviour.of(2, 5);
+        // a common drop, a rare drop, and nothing
+        this.multiDrop = AliasTable.of(new int[] { 70, 5, 25 });
+    }
+
+    @Benchmark
+    public int rangedBehaviour() {
+        return this.ranged.getQuantityDroppedWithBonus(this.fortune, this.random);
+    }
+
+    @Benchmark
+    public int rangedTable() {
+        return this.rangedTable.getQuantityWithBonus(this.fortune, this.random);
+    }
+
+    @Benchmark
+    public int fortuneBehaviour() {
+        return this.fortuneBehaviour.getQuantityDroppedWithBonus(this.fortune, this.random);
+    }
+
+    @Benchmark
+    public int fortuneTable() {
+        return this.fortuneTable.getQuantityWithBonus(this.fortune, this.random);
+    }
+
+    @Benchmark
+    public int fortuneTabulated() {
+        return this.tabulatedTable.getQuantityWithBonus(this.fortune, this.random);
+    }
+
+    @Benchmark
+    public int expWithoutWorld() {
+        return this.exp.getQuantityDropped(null, null, null, this.fortune);
+    }
+
+    // how exp was dropped without a world, before DropRandom
+    @Benchmark
+    public int expWithoutWorldNewRandom() {
+        return MathHelper.getInt(new Random(), 2, 5);
+    }
+
+    @Benchmark
+    public int multiDropEntry() {
+        return this.multiDrop.sample(this.random);
+    }
+
+}
@@ -0,0 +1,115 @@
+/*
+ * This file is part of unnamed, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2017, Jamie Mansfield <https://www.jamierocks.uk/>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package uk.jamierocks.mc.unnamed.world;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of planning the ore veins of a chunk, as done by
+ * {@code UnnamedWorldGenerator#genStandardOre} for every chunk populated.
+ *
+ * The world is stubbed by an {@link OreVeinPlanner.AreaFilter}, standing in for
+ * the palettes of the chunk sections - as writing to a world requires a running game.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OreGenBenchmark {
+
+    /**
+     * The ores planned in each chunk, as veinSize, veinCount, minHeight and maxHeight -
+     * tungsten alongside vanilla's coal and iron.
+     */
+    private static final int[][] ORES = {
+            { 9, 2, 0, 32 },
+            { 17, 20, 0, 128 },
+            { 9, 20, 0, 64 },
+    };
+
+    @Param({ "vanilla", "xorshift" })
+    public String random;
+
+    /**
+     * The stub world: 'land' may replace anywhere, 'ocean' only below the sea floor,
+     * and 'void' nowhere.
+     */
+    @Param({ "land", "ocean", "void" })
+    public String world;
+
+    private final Random chunkRandom = new Random();
+    private final OrePlan plan = new OrePlan();
+    private OreRandom oreRandom;
+    private OreVeinPlanner.AreaFilter filter;
+    private int chunk;
+
+    @Setup
+    public void setup() {
+        this.oreRandom = OreRandom.of(this.random);
+        switch (this.world) {
+            case "ocean":
+                this.filter = (minX, minY, minZ, maxX, maxY, maxZ) -> minY < 40;
+                break;
+            case "void":
+                this.filter = (minX, minY, minZ, maxX, maxY, maxZ) -> false;
+                break;
+            default:
+                this.filter = null;
+                break;
+        }
+    }
+
+    @Benchmark
+    public int planChunk() {
+        final int chunkX = this.chunk++ & 63;
+        final int chunkZ = this.chunk >> 6 & 63;
+        this.chunkRandom.setSeed(chunkX * 341873128712L + chunkZ * 132897987541L);
+        this.oreRandom.seed(this.chunkRandom);
+
+        this.plan.clear();
+        for (int ore = 0; ore < ORES.length; ore++) {
+            OreVeinPlanner.planStandardOre(this.oreRandom, chunkX << 4, chunkZ << 4, ore, ORES[ore][0], ORES[ore][1],
+                    ORES[ore][2], ORES[ore][3], this.plan, this.filter);
+        }
+        return this.plan.size();
+    }
+
+}
@@ -25,35 +25,60 @@
 
 package uk.jamierocks.mc.unnamed;
 
-import static uk.jamierocks.mc.unnamed.init.UnnamedBlocks.hardened_glass;
-import static uk.jamierocks.mc.unnamed.init.UnnamedBlocks.tungsten_block;
-import static uk.jamierocks.mc.unnamed.init.UnnamedBlocks.tungsten_ore;
 import static uk.jamierocks.mc.unnamed.init.UnnamedItems.tungsten;
-import static uk.jamierocks.mc.unnamed.init.UnnamedItems.tungsten_carbide;
 
 import net.minecraft.block.Block;
 import net.minecraft.creativetab.CreativeTabs;
-import net.minecraft.init.Blocks;
 import net.minecraft.item.Item;
 import net.minecraft.item.ItemBlock;
+import net.minecraft.item.ItemMultiTexture;
 import net.minecraft.item.ItemStack;
+import net.minecraft.util.ResourceLocation;
 import net.minecraftforge.event.RegistryEvent;
+import net.minecraftforge.fml.common.Loader;
 import net.minecraftforge.fml.common.Mod;
 import net.minecraftforge.fml.common.SidedProxy;
 import net.minecraftforge.fml.common.event.FMLInitializationEvent;
+import net.minecraftforge.fml.common.event.FMLLoadCompleteEvent;
+import net.minecraftforge.fml.common.event.FMLModIdMappingEvent;
+import net.minecraftforge.fml.common.event.FMLPostInitializationEvent;
 import net.minecraftforge.fml.common.event.FMLPreInitializationEvent;
+import net.minecraftforge.fml.common.event.FMLServerStartingEvent;
+import net.minecraftforge.fml.common.event.FMLServerStoppingEvent;
 import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
 import net.minecraftforge.fml.common.registry.GameRegistry;
 import net.minecraftforge.fml.common.registry.IForgeRegistry;
 import net.minecraftforge.oredict.OreDictionary;
-import uk.jamierocks.mc.unnamed.block.ExpDropBehaviour;
-import uk.jamierocks.mc.unnamed.block.ItemDropBehaviour;
-import uk.jamierocks.mc.unnamed.block.Presets;
+import net.minecraftforge.oredict.ShapedOreRecipe;
 import uk.jamierocks.mc.unnamed.block.UnnamedBlock;
+import uk.jamierocks.mc.unnamed.block.VariantBlock;
+import uk.jamierocks.mc.unnamed.command.CommandUnnamed;
+import uk.jamierocks.mc.unnamed.config.UnnamedConfig;
+import uk.jamierocks.mc.unnamed.definition.BlockDefinition;
+import uk.jamierocks.mc.unnamed.definition.DefinitionLoader;
+import uk.jamierocks.mc.unnamed.definition.Definitions;
+import uk.jamierocks.mc.unnamed.definition.RecipeDefinition;
+import uk.jamierocks.mc.unnamed.init.UnnamedContent;
 import uk.jamierocks.mc.unnamed.item.UnnamedItem;
+import uk.jamierocks.mc.unnamed.metrics.DropMetrics;
+import uk.jamierocks.mc.unnamed.metrics.StartupProfiler;
+import uk.jamierocks.mc.unnamed.metrics.WorldGenMetrics;
 import uk.jamierocks.mc.unnamed.proxy.IProxy;
+import uk.jamierocks.mc.unnamed.recipe.IndexedRecipes;
 import uk.jamierocks.mc.unnamed.util.Constants;
 import uk.jamierocks.mc.unnamed.util.CreativeTabHelper;
+import uk.jamierocks.mc.unnamed.util.ItemHelper;
+import uk.jamierocks.mc.unnamed.world.OreDispatchTable;
+import uk.jamierocks.mc.unnamed.world.OreRandom;
+import uk.jamierocks.mc.unnamed.world.ReplaceableStates;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 @Mod(modid = Constants.MOD_ID, name = "Unnamed")
 @Mod.EventBusSubscriber
@@ -66,68 +91,181 @@ public final class UnnamedMod {
 
     public static CreativeTabs creativeTab = CreativeTabHelper.of(Constants.MOD_ID, () -> tungsten);
 
+    public static final WorldGenMetrics worldGenMetrics = new WorldGenMetrics();
+
+    public static final DropMetrics dropMetrics = new DropMetrics();
+
+    public static final ReplaceableStates replaceableStates = new ReplaceableStates();
+
+    public static final StartupProfiler startupProfiler = new StartupProfiler();
+
+    public static final IndexedRecipes indexedRecipes = new IndexedRecipes();
+
+    private static Definitions definitions;
+
+    /**
+     * Gets the definitions of Unnamed's content, loading them if they have yet to be.
+     *
+     * @return The definitions
+     */
+    public static Definitions getDefinitions() {
+        if (definitions == null) {
+            // the registry events are fired before pre-initialisation, so the config directory is found here
+            try (final StartupProfiler.Timer ignored = startupProfiler.start("loadDefinitions")) {
+                definitions = DefinitionLoader.load(new File(Loader.instance().getConfigDir(), Constants.MOD_ID));
+            }
+        }
+        return definitions;
+    }
+
     @SubscribeEvent
     public static void registerBlocks(RegistryEvent.Register<Block> event) {
-        // tungsten
-        registerBlock(event.getRegistry(), UnnamedBlock.builder()
-                .preset(Presets.ORE)
-                .identifier("tungsten_ore")
-                .drop(ItemDropBehaviour.Fortune.of(() -> tungsten, 1, 3))
-                .drop(ExpDropBehaviour.of(2, 5))
-                .build());
-        registerBlock(event.getRegistry(), UnnamedBlock.builder()
-                .identifier("tungsten_block")
-                .build());
-
-        // hardened stuff
-        registerBlock(event.getRegistry(), UnnamedBlock.builder()
-                .preset(Presets.GLASS)
-                .identifier("hardened_glass")
-                .hardness(0.75f) // glass hardness is 0.3, this is 1.5x
-                .resistance(10f) // same as stone
-                .build());
+        try (final StartupProfiler.Timer ignored = startupProfiler.start("registerBlocks")) {
+            for (final BlockDefinition block : getDefinitions().getBlocks()) {
+                registerBlock(event.getRegistry(), block.toBuilder()
+                        .metrics(dropMetrics)
+                        .build());
+            }
+        }
     }
 
     @SubscribeEvent
     public static void registerItems(RegistryEvent.Register<Item> event) {
-        // tungsten
-        registerItem(event.getRegistry(), new UnnamedItem("tungsten"), 0);
-        registerItem(event.getRegistry(), new UnnamedItem("tungsten_carbide"), 0);
-        registerItemBlock(event.getRegistry(), tungsten_ore, 0);
-        registerItemBlock(event.getRegistry(), tungsten_block, 0);
-
-        // hardened stuff
-        registerItemBlock(event.getRegistry(), hardened_glass, 0);
+        try (final StartupProfiler.Timer ignored = startupProfiler.start("registerItems")) {
+            for (final String item : getDefinitions().getItems()) {
+                registerItem(event.getRegistry(), new UnnamedItem(item), 0);
+            }
+            for (final BlockDefinition block : getDefinitions().getBlocks()) {
+                final ResourceLocation name = new ResourceLocation(Constants.MOD_ID, block.getIdentifier());
+                registerItemBlock(event.getRegistry(), Block.REGISTRY.getObject(name), 0);
+            }
+        }
     }
 
     @Mod.EventHandler
     public void onPreInit(FMLPreInitializationEvent event) {
-        // Register items and blocks to the ore dictionary
-        ////
+        try (final StartupProfiler.Timer ignored = startupProfiler.start("onPreInit")) {
+            // every block and item has been registered by now
+            UnnamedContent.bind();
+
+            UnnamedConfig.load(event.getSuggestedConfigurationFile());
+
+            // Register items and blocks to the ore dictionary
+            ////
 
-        // tungsten
-        OreDictionary.registerOre("tungsten", tungsten);
-        OreDictionary.registerOre("oreTungsten", tungsten_ore);
-        OreDictionary.registerOre("blockTungsten", tungsten_block);
+            for (final Map.Entry<String, List<String>> ore : getDefinitions().getOres().entrySet()) {
+                for (final String item : ore.getValue()) {
+                    OreDictionary.registerOre(ore.getKey(), ItemHelper.getStack(item, 1));
+                }
+            }
 
-        // World generation
-        ////
-        GameRegistry.registerWorldGenerator(new UnnamedWorldGenerator(), 0);
+            // World generation
+            ////
+            final UnnamedWorldGenerator worldGenerator = new UnnamedWorldGenerator(OreDispatchTable.compile(UnnamedConfig.ores),
+                    () -> OreRandom.of(UnnamedConfig.oreRandom), replaceableStates);
+            if (UnnamedConfig.asyncOrePlanning) {
+                worldGenerator.enableAsyncPlanning(UnnamedConfig.orePlanningThreads);
+            }
+            if (UnnamedConfig.cascadeFreeOres) {
+                worldGenerator.enableCascadeFreePlacement();
+            }
+            if (UnnamedConfig.worldGenMetrics) {
+                worldGenerator.enableMetrics(worldGenMetrics);
+            }
+            GameRegistry.registerWorldGenerator(worldGenerator, 0);
+        }
     }
 
     @Mod.EventHandler
     public void onInit(FMLInitializationEvent event) {
-        // Register recipes to the game registry
-        ////
+        try (final StartupProfiler.Timer ignored = startupProfiler.start("onInit")) {
+            // the registries are frozen, so the drops can be resolved
+            resolveDrops();
+
+            // Register recipes to the game registry
+            ////
+
+            for (final RecipeDefinition recipe : getDefinitions().getRecipes()) {
+                registerRecipe(recipe);
+            }
+            indexedRecipes.install();
+        }
+    }
+
+    @Mod.EventHandler
+    public void onPostInit(FMLPostInitializationEvent event) {
+        // every mod has registered to the ore dictionary by now
+        replaceableStates.compile(Arrays.asList(UnnamedConfig.replaceableStates));
+    }
 
-        // tungsten
-        GameRegistry.addShapedRecipe(new ItemStack(tungsten_block), new String[] { "tt", "tt" }, 't', tungsten);
-        GameRegistry.addShapedRecipe(new ItemStack(tungsten, 4), new String[] { "t" }, 't', tungsten_block);
-        GameRegistry.addSmelting(tungsten, new ItemStack(tungsten_carbide, 3), 2);
+    @Mod.EventHandler
+    public void onLoadComplete(FMLLoadCompleteEvent event) {
+        try {
+            startupProfiler.writeReport(new File(Loader.instance().getConfigDir().getParentFile(), "unnamed-startup.json"));
+        } catch (IOException ignored) {
+            // the report is only informational, and loading carries on without it
+        }
+    }
+
+    @Mod.EventHandler
+    public void onIdMapping(FMLModIdMappingEvent event) {
+        replaceableStates.remap();
+        resolveDrops();
+        // the recipes are indexed by item id
+        indexedRecipes.rebuild();
+    }
+
+    @Mod.EventHandler
+    public void onServerStarting(FMLServerStartingEvent event) {
+        event.registerServerCommand(new CommandUnnamed(worldGenMetrics, dropMetrics));
+
+        if (UnnamedConfig.dropSnapshotMinutes > 0) {
+            dropMetrics.startSnapshots(event.getServer().getFile("unnamed-drops.csv"), UnnamedConfig.dropSnapshotMinutes,
+                    TimeUnit.MINUTES);
+        }
+    }
 
-        // hardened stuff
-        GameRegistry.addShapedRecipe(new ItemStack(hardened_glass),
-                new String[] { "ccc", "cgc", "ccc" }, 'c', tungsten_carbide, 'g', Blocks.GLASS);
+    @Mod.EventHandler
+    public void onServerStopping(FMLServerStoppingEvent event) {
+        dropMetrics.stopSnapshots();
+    }
+
+    private static void resolveDrops() {
+        for (final Block block : Block.REGISTRY) {
+            if (block instanceof UnnamedBlock) {
+                ((UnnamedBlock) block).resolveDrops();
+            }
+        }
+    }
+
+    private static void registerRecipe(RecipeDefinition recipe) {
+        final ItemStack output = ItemHelper.getStack(recipe.getOutput(), recipe.getCount());
+        switch (recipe.getType()) {
+            case SHAPED:
+                final List<Object> params = new ArrayList<>();
+                params.add(recipe.getPattern());
+                boolean ore = false;
+                for (final Map.Entry<Character, String> key : recipe.getKeys().entrySet()) {
+                    params.add(key.getKey());
+                    if (key.getValue().startsWith(RecipeDefinition.ORE_PREFIX)) {
+                        params.add(key.getValue().substring(RecipeDefinition.ORE_PREFIX.length()));
+                        ore = true;
+                    } else {
+                        params.add(ItemHelper.getStack(key.getValue(), 1));
+                    }
+                }
+
+                // only ore dictionary keys need the slower ore recipe
+                if (ore) {
+                    GameRegistry.addRecipe(new ShapedOreRecipe(output, params.toArray()));
+                } else {
+                    indexedRecipes.add(GameRegistry.addShapedRecipe(output, params.toArray()));
+                }
+                break;
+            case SMELTING:
+                GameRegistry.addSmelting(ItemHelper.getStack(recipe.getInput(), 1), output, recipe.getExp());
+                break;
+        }
     }
 
     private static void registerBlock(IForgeRegistry<Block> registry, Block block) {
@@ -140,7 +278,21 @@ public final class UnnamedMod {
     }
 
     private static void registerItemBlock(IForgeRegistry<Item> registry, Block block, int itemVariant) {
+        if (block instanceof VariantBlock) {
+            registerVariantItemBlock(registry, (VariantBlock) block);
+            return;
+        }
         registerItem(registry, new ItemBlock(block).setRegistryName(block.getRegistryName()), itemVariant);
     }
 
+    private static void registerVariantItemBlock(IForgeRegistry<Item> registry, VariantBlock block) {
+        final Item item = new ItemMultiTexture(block, block, stack ->
+                block.getVariantName(stack.getMetadata() < block.getVariantCount() ? stack.getMetadata() : 0))
+                .setRegistryName(block.getRegistryName());
+        registry.register(item);
+        for (int variant = 0; variant < block.getVariantCount(); variant++) {
+            proxy.registerItemModel(item, variant);
+        }
+    }
+
 }
@@ -25,72 +25,161 @@
 
 package uk.jamierocks.mc.unnamed;
 
-import net.minecraft.util.math.BlockPos;
+import com.google.common.base.Predicate;
+import net.minecraft.block.state.IBlockState;
 import net.minecraft.world.World;
 import net.minecraft.world.chunk.IChunkGenerator;
 import net.minecraft.world.chunk.IChunkProvider;
-import net.minecraft.world.gen.feature.WorldGenMinable;
-import net.minecraft.world.gen.feature.WorldGenerator;
+import net.minecraftforge.common.MinecraftForge;
+import net.minecraftforge.event.world.ChunkEvent;
 import net.minecraftforge.fml.common.IWorldGenerator;
-import uk.jamierocks.mc.unnamed.init.UnnamedBlocks;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import uk.jamierocks.mc.unnamed.metrics.WorldGenMetrics;
+import uk.jamierocks.mc.unnamed.world.AsyncOrePlanner;
+import uk.jamierocks.mc.unnamed.world.ChunkOrePlanner;
+import uk.jamierocks.mc.unnamed.world.OreDispatchTable;
+import uk.jamierocks.mc.unnamed.world.OreJob;
+import uk.jamierocks.mc.unnamed.world.OrePlan;
+import uk.jamierocks.mc.unnamed.world.OreRandom;
+import uk.jamierocks.mc.unnamed.world.OreSpillData;
+import uk.jamierocks.mc.unnamed.world.OreVeinPlanner;
+import uk.jamierocks.mc.unnamed.world.OreVeinWriter;
+import uk.jamierocks.mc.unnamed.world.OreWriteStats;
+import uk.jamierocks.mc.unnamed.world.SectionPalettes;
 
 import java.util.Random;
+import java.util.function.Supplier;
+
+import javax.annotation.Nullable;
 
 /**
  * The {@link IWorldGenerator} for Unnamed.
  */
-public class UnnamedWorldGenerator implements IWorldGenerator {
+public class UnnamedWorldGenerator implements IWorldGenerator, ChunkOrePlanner {
+
+    private final OreDispatchTable dispatchTable;
+    private final ThreadLocal<OreRandom> oreRandom;
+    private final OrePlan plan = new OrePlan();
+    private final OreWriteStats writeStats = new OreWriteStats();
+    private final Predicate<IBlockState> target;
+    private final SectionPalettes palettes;
+    private AsyncOrePlanner asyncPlanner;
+    private WorldGenMetrics metrics;
+    private boolean cascadeFree;
 
-    private final WorldGenMinable tungstenGen;
+    public UnnamedWorldGenerator(OreDispatchTable dispatchTable, Supplier<OreRandom> oreRandom, Predicate<IBlockState> target) {
+        this.dispatchTable = dispatchTable;
+        this.oreRandom = ThreadLocal.withInitial(oreRandom);
+        this.target = target;
+        this.palettes = new SectionPalettes(target);
+    }
 
-    public UnnamedWorldGenerator() {
-        this.tungstenGen = new WorldGenMinable(UnnamedBlocks.tungsten_ore.getDefaultState(), 9);
+    /**
+     * Enables planning ore placements on worker threads, ahead of population.
+     *
+     * @param threads The number of worker threads
+     */
+    public void enableAsyncPlanning(int threads) {
+        if (this.asyncPlanner == null) {
+            this.asyncPlanner = new AsyncOrePlanner(this, threads);
+            MinecraftForge.EVENT_BUS.register(this.asyncPlanner);
+        }
+    }
+
+    /**
+     * Enables recording metrics of each chunk populated to the given metrics.
+     *
+     * @param metrics The metrics
+     */
+    public void enableMetrics(WorldGenMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Enables cascade-free placement, where placements in chunks that aren't loaded
+     * are spilled into the world's {@link OreSpillData} rather than loading the chunk.
+     */
+    public void enableCascadeFreePlacement() {
+        if (!this.cascadeFree) {
+            this.cascadeFree = true;
+            MinecraftForge.EVENT_BUS.register(this);
+        }
     }
 
     @Override
     public void generate(Random random, int chunkX, int chunkZ, World world, IChunkGenerator chunkGenerator, IChunkProvider chunkProvider) {
-        switch (world.provider.getDimension()) {
-            case -1: // nether
-                this.generateNether(random, new BlockPos(chunkX, 0,  chunkZ), world, chunkGenerator, chunkProvider);
-                break;
-            case 0: // overworld
-                this.generateOverworld(random, new BlockPos(chunkX, 0,  chunkZ), world, chunkGenerator, chunkProvider);
-                break;
-            case 1: // end
-                this.generateEnd(random, new BlockPos(chunkX, 0,  chunkZ), world, chunkGenerator, chunkProvider);
-                break;
+        final int dimension = world.provider.getDimension();
+        if (!this.hasWork(dimension)) {
+            return;
+        }
+
+        final long start = System.nanoTime();
+        final OreWriteStats stats = this.metrics != null ? this.writeStats : null;
+        OrePlan plan = this.asyncPlanner != null ? this.asyncPlanner.take(world, chunkX, chunkZ) : null;
+        if (plan == null) {
+            plan = this.plan;
+            // the world can only be read from here, not from the async planner
+            this.palettes.reset(world);
+            this.plan(random, dimension, chunkX, chunkZ, plan, this.palettes);
+            this.palettes.reset(null);
         }
+
+        // Write all of the planned veins at once, rather than block by block
+        if (this.cascadeFree) {
+            final OreSpillData spill = OreSpillData.get(world);
+            if (spill.hasSpilled(chunkX, chunkZ)) {
+                spill.flush(world, world.getChunkFromChunkCoords(chunkX, chunkZ), this.target, stats);
+            }
+            OreVeinWriter.write(world, spill, plan, this.dispatchTable.getOres(), this.target, stats);
+        } else {
+            OreVeinWriter.write(world, plan, this.dispatchTable.getOres(), this.target, stats);
+        }
+
+        if (stats != null) {
+            this.metrics.record(dimension, System.nanoTime() - start, stats.getPlaced(), plan.getVeinCount(), stats.getVeinsPlaced(),
+                    stats.getNeighboursTouched(chunkX, chunkZ));
+            stats.reset();
+        }
+        plan.clear();
     }
 
-    private void generateNether(Random random, BlockPos chunkPos, World world, IChunkGenerator chunkGenerator, IChunkProvider chunkProvider) {
+    @SubscribeEvent
+    public void onChunkLoad(ChunkEvent.Load event) {
+        // chunks that have yet to be populated will be flushed when they are
+        final World world = event.getWorld();
+        if (world.isRemote || !event.getChunk().isTerrainPopulated() || !this.hasWork(world.provider.getDimension())) {
+            return;
+        }
+
+        final OreSpillData spill = OreSpillData.get(world);
+        if (spill.hasSpilled(event.getChunk().xPosition, event.getChunk().zPosition)) {
+            spill.flush(world, event.getChunk(), this.target, null);
+        }
     }
 
-    private void generateOverworld(Random random, BlockPos chunkPos, World world, IChunkGenerator chunkGenerator, IChunkProvider chunkProvider) {
-        this.genStandardOre(chunkPos, world, random, 2, this.tungstenGen, 0, 32);
+    @Override
+    public boolean hasWork(int dimension) {
+        return this.dispatchTable.getJobs(dimension).length != 0;
     }
 
-    private void generateEnd(Random random, BlockPos chunkPos, World world, IChunkGenerator chunkGenerator, IChunkProvider chunkProvider) {
+    @Override
+    public void plan(Random random, int dimension, int chunkX, int chunkZ, OrePlan plan) {
+        this.plan(random, dimension, chunkX, chunkZ, plan, null);
     }
 
-    // adapted from BiomeDecorator#genStandardOre1(World, Random, int, WorldGenerator, int, int)
-    private void genStandardOre(BlockPos chunkPos, World worldIn, Random random, int blockCount, WorldGenerator generator, int minHeight,
-            int maxHeight) {
-        if (maxHeight < minHeight) {
-            int i = minHeight;
-            minHeight = maxHeight;
-            maxHeight = i;
-        } else if (maxHeight == minHeight) {
-            if (minHeight < 255) {
-                ++maxHeight;
-            } else {
-                --minHeight;
-            }
-        }
+    private void plan(Random random, int dimension, int chunkX, int chunkZ, OrePlan plan, @Nullable OreVeinPlanner.AreaFilter filter) {
+        final OreRandom oreRandom = this.oreRandom.get();
+        oreRandom.seed(random);
 
-        for (int j = 0; j < blockCount; ++j) {
-            BlockPos blockpos = chunkPos.add(random.nextInt(16), random.nextInt(maxHeight - minHeight) + minHeight, random.nextInt(16));
-            generator.generate(worldIn, random, blockpos);
+        for (final OreJob job : this.dispatchTable.getJobs(dimension)) {
+            this.genStandardOre(oreRandom, chunkX << 4, chunkZ << 4, job, plan, filter);
         }
     }
 
+    private void genStandardOre(OreRandom random, int blockX, int blockZ, OreJob job, OrePlan plan,
+            @Nullable OreVeinPlanner.AreaFilter filter) {
+        OreVeinPlanner.planStandardOre(random, blockX, blockZ, job.getOre(), job.getVeinSize(), job.getVeinCount(),
+                job.getMinHeight(), job.getMaxHeight(), plan, filter);
+    }
+
 }
@@ -0,0 +1,140 @@
+/*
+ * This file is part of unnamed, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2017, Jamie Mansfield <https://www.jamierocks.uk/>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package uk.jamierocks.mc.unnamed.block;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.Random;
+
+/**
+ * A table for sampling from a discrete distribution of integer weights, using
+ * Vose's alias method, in constant time and with a single random draw.
+ *
+ * <p>As the weights are integers, the distribution sampled is exactly that of the
+ * weights given.</p>
+ */
+final class AliasTable {
+
+    /**
+     * Compiles an alias table for the given weights.
+     *
+     * @param weights The weights, of which at least one must be positive
+     * @return The alias table
+     */
+    static AliasTable of(int[] weights) {
+        checkArgument(weights.length > 0, "At least one weight is required!");
+        long total = 0;
+        for (final int weight : weights) {
+            checkArgument(weight >= 0, "Weights can't be negative!");
+            total += weight;
+        }
+        checkArgument(total > 0, "At least one weight must be positive!");
+        checkArgument(total * weights.length <= Integer.MAX_VALUE, "The weights are too large!");
+
+        final int n = weights.length;
+        final int capacity = (int) total;
+        final int[] probability = new int[n];
+        final int[] alias = new int[n];
+
+        // each column holds the capacity, scaled weights are the share of each outcome
+        final long[] scaled = new long[n];
+        final int[] small = new int[n];
+        final int[] large = new int[n];
+        int smallCount = 0;
+        int largeCount = 0;
+        for (int i = 0; i < n; i++) {
+            scaled[i] = (long) weights[i] * n;
+            if (scaled[i] < capacity) {
+                small[smallCount++] = i;
+            } else {
+                large[largeCount++] = i;
+            }
+        }
+
+        while (smallCount > 0 && largeCount > 0) {
+            final int less = small[--smallCount];
+            final int more = large[--largeCount];
+            probability[less] = (int) scaled[less];
+            alias[less] = more;
+            scaled[more] -= capacity - scaled[less];
+            if (scaled[more] < capacity) {
+                small[smallCount++] = more;
+            } else {
+                large[largeCount++] = more;
+            }
+        }
+        // what remains fills its column exactly
+        while (largeCount > 0) {
+            final int i = large[--largeCount];
+            probability[i] = capacity;
+            alias[i] = i;
+        }
+        while (smallCount > 0) {
+            final int i = small[--smallCount];
+            probability[i] = capacity;
+            alias[i] = i;
+        }
+
+        return new AliasTable(probability, alias, capacity);
+    }
+
+    private final int[] probability;
+    private final int[] alias;
+    private final int capacity;
+    private final int bound;
+
+    private AliasTable(int[] probability, int[] alias, int capacity) {
+        this.probability = probability;
+        this.alias = alias;
+        this.capacity = capacity;
+        this.bound = probability.length * capacity;
+    }
+
+    /**
+     * Gets the number of outcomes.
+     *
+     * @return The number of outcomes
+     */
+    int size() {
+        return this.probability.length;
+    }
+
+    /**
+     * Samples an outcome, with a single draw from the random.
+     *
+     * @param random The random
+     * @return The index of the outcome
+     */
+    int sample(Random random) {
+        if (this.probability.length == 1) {
+            return 0;
+        }
+        final int r = random.nextInt(this.bound);
+        final int column = r / this.capacity;
+        return r % this.capacity < this.probability[column] ? column : this.alias[column];
+    }
+
+}
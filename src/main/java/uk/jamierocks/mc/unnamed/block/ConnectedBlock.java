@@ -0,0 +1,124 @@
+/*
+ * This file is part of unnamed, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2017, Jamie Mansfield <https://www.jamierocks.uk/>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package uk.jamierocks.mc.unnamed.block;
+
+import net.minecraft.block.properties.IProperty;
+import net.minecraft.block.state.BlockStateContainer;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.util.EnumFacing;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.IBlockAccess;
+import net.minecraftforge.common.property.ExtendedBlockState;
+import net.minecraftforge.common.property.IExtendedBlockState;
+import net.minecraftforge.common.property.IUnlistedProperty;
+
+/**
+ * A translucent block with connected textures, built by
+ * {@link UnnamedBlock.Builder#connectedTextures()}.
+ *
+ * The sides it connects on are given by {@link #CONNECTIONS}, as a mask of the
+ * {@link EnumFacing#getIndex() indexes} of the neighbours that are the same state.
+ * An extended state for each of the 64 masks is made with the block, so meshing
+ * only has to read the neighbours.
+ */
+public final class ConnectedBlock extends SpecializedBlocks.Translucent {
+
+    /**
+     * The number of masks of connected sides.
+     */
+    public static final int MASKS = 1 << EnumFacing.VALUES.length;
+
+    /**
+     * The mask of the sides a block connects on.
+     */
+    public static final IUnlistedProperty<Integer> CONNECTIONS = new ConnectionsProperty();
+
+    private final IBlockState[] connectedStates = new IBlockState[MASKS];
+
+    ConnectedBlock(UnnamedBlock.Builder builder) {
+        super(builder);
+
+        // the block has no listed properties, so only the one state to extend
+        final IExtendedBlockState state = (IExtendedBlockState) this.getDefaultState();
+        for (int mask = 0; mask < MASKS; mask++) {
+            this.connectedStates[mask] = state.withProperty(CONNECTIONS, mask);
+        }
+    }
+
+    @Override
+    protected BlockStateContainer createBlockState() {
+        return new ExtendedBlockState(this, new IProperty[0], new IUnlistedProperty[] { CONNECTIONS });
+    }
+
+    @Override
+    public IBlockState getExtendedState(IBlockState state, IBlockAccess world, BlockPos pos) {
+        return this.connectedStates[getConnections(state, world, pos)];
+    }
+
+    /**
+     * Gets the mask of the sides the block at the given position connects on.
+     *
+     * @param state The block state
+     * @param world The block access
+     * @param pos The position
+     * @return The mask of connected sides
+     */
+    public static int getConnections(IBlockState state, IBlockAccess world, BlockPos pos) {
+        int mask = 0;
+        for (final EnumFacing side : EnumFacing.VALUES) {
+            // the block access may hold on to, or read again from, the position it is given
+            if (world.getBlockState(pos.offset(side)) == state) {
+                mask |= 1 << side.getIndex();
+            }
+        }
+        return mask;
+    }
+
+    private static final class ConnectionsProperty implements IUnlistedProperty<Integer> {
+
+        @Override
+        public String getName() {
+            return "connections";
+        }
+
+        @Override
+        public boolean isValid(Integer value) {
+            return value != null && value >= 0 && value < MASKS;
+        }
+
+        @Override
+        public Class<Integer> getType() {
+            return Integer.class;
+        }
+
+        @Override
+        public String valueToString(Integer value) {
+            return value.toString();
+        }
+
+    }
+
+}
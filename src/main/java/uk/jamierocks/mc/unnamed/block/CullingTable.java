@@ -0,0 +1,82 @@
+/*
+ * This file is part of unnamed, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2017, Jamie Mansfield <https://www.jamierocks.uk/>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package uk.jamierocks.mc.unnamed.block;
+
+import net.minecraft.block.state.IBlockState;
+
+import java.util.List;
+
+/**
+ * The face culling decision of each pair of a translucent {@link UnnamedBlock}'s
+ * states, precomputed so that meshing only has to look it up.
+ *
+ * <p>Like glass, a face is culled only against the same state. The states are
+ * indexed by their {@link UnnamedBlock#getVariant(IBlockState) variant}, so an
+ * extended state still culls against its plain neighbour.</p>
+ */
+final class CullingTable {
+
+    /**
+     * Compiles the culling table of the given block.
+     *
+     * @param block The block
+     * @return The culling table
+     */
+    static CullingTable of(UnnamedBlock block) {
+        final List<IBlockState> states = block.getBlockState().getValidStates();
+        final int variants = states.size();
+        final boolean[] culled = new boolean[variants * variants];
+        for (final IBlockState state : states) {
+            for (final IBlockState neighbour : states) {
+                culled[block.getVariant(state) * variants + block.getVariant(neighbour)] = state == neighbour;
+            }
+        }
+        return new CullingTable(block, variants, culled);
+    }
+
+    private final UnnamedBlock block;
+    private final int variants;
+    private final boolean[] culled;
+
+    private CullingTable(UnnamedBlock block, int variants, boolean[] culled) {
+        this.block = block;
+        this.variants = variants;
+        this.culled = culled;
+    }
+
+    /**
+     * Gets whether the face of the given state, against the given neighbour, is culled.
+     *
+     * @param state The block state, of the table's block
+     * @param neighbour The neighbour's block state
+     * @return {@code true} if the face is culled
+     */
+    boolean isCulled(IBlockState state, IBlockState neighbour) {
+        return neighbour.getBlock() == this.block
+                && this.culled[this.block.getVariant(state) * this.variants + this.block.getVariant(neighbour)];
+    }
+
+}
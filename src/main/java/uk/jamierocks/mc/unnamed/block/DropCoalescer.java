@@ -0,0 +1,185 @@
+/*
+ * This file is part of unnamed, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2017, Jamie Mansfield <https://www.jamierocks.uk/>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package uk.jamierocks.mc.unnamed.block;
+
+import net.minecraft.block.Block;
+import net.minecraft.entity.item.EntityXPOrb;
+import net.minecraft.item.ItemStack;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import net.minecraftforge.common.MinecraftForge;
+import net.minecraftforge.event.world.WorldEvent;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.common.gameevent.TickEvent;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Buffers the item and exp drops of blocks broken within the same tick and the same
+ * small area, emitting them at the end of the world's tick as merged item stacks and
+ * exp orbs - so that breaking many blocks at once, such as with a quarry, spawns far
+ * fewer entities.
+ *
+ * The merged totals are exactly those that would have been dropped. Everything here
+ * happens on the server thread.
+ */
+public final class DropCoalescer {
+
+    /**
+     * The size of the areas drops are merged within, as a shift of block coordinates.
+     */
+    private static final int CELL_SHIFT = 3;
+
+    private static DropCoalescer instance;
+
+    /**
+     * Gets the drop coalescer, registering it to the event bus the first time.
+     *
+     * @return The drop coalescer
+     */
+    public static DropCoalescer get() {
+        if (instance == null) {
+            instance = new DropCoalescer();
+            MinecraftForge.EVENT_BUS.register(instance);
+        }
+        return instance;
+    }
+
+    private final Map<World, Map<Long, Cell>> pending = new WeakHashMap<>();
+
+    private DropCoalescer() {
+    }
+
+    /**
+     * Buffers an item stack dropped at the given position.
+     *
+     * @param world The world
+     * @param pos The position
+     * @param stack The item stack
+     */
+    public void addItem(World world, BlockPos pos, ItemStack stack) {
+        if (!stack.isEmpty()) {
+            this.getCell(world, pos).addItem(stack);
+        }
+    }
+
+    /**
+     * Buffers exp dropped at the given position.
+     *
+     * @param world The world
+     * @param pos The position
+     * @param amount The amount of exp
+     */
+    public void addExp(World world, BlockPos pos, int amount) {
+        if (amount > 0) {
+            this.getCell(world, pos).exp += amount;
+        }
+    }
+
+    private Cell getCell(World world, BlockPos pos) {
+        final Map<Long, Cell> cells = this.pending.computeIfAbsent(world, w -> new LinkedHashMap<>());
+        final long key = new BlockPos(pos.getX() >> CELL_SHIFT, pos.getY() >> CELL_SHIFT, pos.getZ() >> CELL_SHIFT).toLong();
+        Cell cell = cells.get(key);
+        if (cell == null) {
+            cell = new Cell(pos.toImmutable());
+            cells.put(key, cell);
+        }
+        return cell;
+    }
+
+    @SubscribeEvent
+    public void onWorldTick(TickEvent.WorldTickEvent event) {
+        if (event.phase != TickEvent.Phase.END || event.world.isRemote) {
+            return;
+        }
+
+        final Map<Long, Cell> cells = this.pending.get(event.world);
+        if (cells == null || cells.isEmpty()) {
+            return;
+        }
+        for (final Cell cell : cells.values()) {
+            cell.emit(event.world);
+        }
+        cells.clear();
+    }
+
+    @SubscribeEvent
+    public void onWorldUnload(WorldEvent.Unload event) {
+        // anything spawned now would never be saved
+        this.pending.remove(event.getWorld());
+    }
+
+    private static final class Cell {
+
+        // the position of the first break, where the merged drops are emitted
+        private final BlockPos pos;
+        private final List<ItemStack> items = new ArrayList<>();
+        private int exp;
+
+        private Cell(BlockPos pos) {
+            this.pos = pos;
+        }
+
+        private void addItem(ItemStack stack) {
+            for (final ItemStack merged : this.items) {
+                if (stack.isEmpty()) {
+                    return;
+                }
+                if (ItemStack.areItemsEqual(merged, stack) && ItemStack.areItemStackTagsEqual(merged, stack)) {
+                    final int moved = Math.min(merged.getMaxStackSize() - merged.getCount(), stack.getCount());
+                    if (moved > 0) {
+                        merged.grow(moved);
+                        stack.shrink(moved);
+                    }
+                }
+            }
+            if (!stack.isEmpty()) {
+                this.items.add(stack);
+            }
+        }
+
+        // adapted from Block#dropXpOnBlockBreak(World, BlockPos, int)
+        private void emit(World world) {
+            for (final ItemStack stack : this.items) {
+                Block.spawnAsEntity(world, this.pos, stack);
+            }
+
+            int exp = this.exp;
+            while (exp > 0) {
+                final int split = EntityXPOrb.getXPSplit(exp);
+                exp -= split;
+                world.spawnEntity(new EntityXPOrb(world, (double) this.pos.getX() + 0.5D, (double) this.pos.getY() + 0.5D,
+                        (double) this.pos.getZ() + 0.5D, split));
+            }
+        }
+
+    }
+
+}
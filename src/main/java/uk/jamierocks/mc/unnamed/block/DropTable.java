@@ -0,0 +1,272 @@
+/*
+ * This file is part of unnamed, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2017, Jamie Mansfield <https://www.jamierocks.uk/>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package uk.jamierocks.mc.unnamed.block;
+
+import com.google.common.annotations.VisibleForTesting;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.init.Enchantments;
+import net.minecraft.item.Item;
+
+import java.util.Optional;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import javax.annotation.Nullable;
+
+/**
+ * The item drops of an {@link UnnamedBlock}, resolved from its {@link ItemDropBehaviour}
+ * once the registries are frozen, so that breaking the block is a few field reads.
+ *
+ * <p>Behaviours created by the factories of {@link ItemDropBehaviour} are flattened
+ * completely. Any other behaviour can't be, so only its item is resolved, and the
+ * rest is delegated to it.</p>
+ */
+public final class DropTable {
+
+    private static final int[][] NO_QUANTITIES = new int[0][];
+    private static final AliasTable[] NO_DISTRIBUTIONS = new AliasTable[0];
+
+    /**
+     * Resolves the drop table of the given block.
+     *
+     * @param block The block
+     * @param behaviour The item drop behaviour of the block
+     * @return The drop table
+     */
+    static DropTable resolve(UnnamedBlock block, ItemDropBehaviour behaviour) {
+        return resolve(block, behaviour, Enchantments.FORTUNE.getMaxLevel());
+    }
+
+    /**
+     * Resolves the drop table of the given block, tabulating fortune up to the
+     * given level.
+     *
+     * @param block The block
+     * @param behaviour The item drop behaviour of the block
+     * @param maxFortune The highest fortune level to tabulate
+     * @return The drop table
+     */
+    static DropTable resolve(UnnamedBlock block, ItemDropBehaviour behaviour, int maxFortune) {
+        if (behaviour instanceof RangedItemDrop) {
+            final RangedItemDrop ranged = (RangedItemDrop) behaviour;
+            final Supplier<Item> drop = ranged.getDropSupplier();
+            int[][] fortuneQuantities = NO_QUANTITIES;
+            AliasTable[] fortuneDistributions = NO_DISTRIBUTIONS;
+            if (ranged instanceof RangedItemDrop.Fortune && ((RangedItemDrop.Fortune) ranged).isTabulated()) {
+                fortuneQuantities = new int[maxFortune + 1][];
+                fortuneDistributions = new AliasTable[maxFortune + 1];
+                tabulateFortune(ranged.getMinimum(), ranged.getMaximum(), fortuneQuantities, fortuneDistributions);
+            }
+            final Item item = drop != null ? drop.get() : Item.getItemFromBlock(block);
+            // the block drops itself, as the variant it is
+            return new DropTable(block, item, item == Item.getItemFromBlock(block), false, ranged.getMinimum(), ranged.getMaximum(),
+                    ranged instanceof ItemDropBehaviour.Fortune, null, fortuneQuantities, fortuneDistributions);
+        }
+
+        final Optional<Supplier<Item>> drop = behaviour.getDrop();
+        final Item item = drop.map(Supplier::get).orElseGet(() -> Item.getItemFromBlock(block));
+        // the default meta is resolved here, rather than from the behaviour on every drop
+        return new DropTable(block, item, !drop.isPresent(), overridesMeta(behaviour), 0, 0, false, behaviour, NO_QUANTITIES,
+                NO_DISTRIBUTIONS);
+    }
+
+    private static boolean overridesMeta(ItemDropBehaviour behaviour) {
+        try {
+            return behaviour.getClass().getMethod("getMeta", UnnamedBlock.class, IBlockState.class).getDeclaringClass()
+                    != ItemDropBehaviour.class;
+        } catch (NoSuchMethodException ex) {
+            return true;
+        }
+    }
+
+    // based on code from BlockOre#quantityDroppedWithBonus(int, Random)
+    @VisibleForTesting
+    static void tabulateFortune(int minimum, int maximum, int[][] fortuneQuantities, AliasTable[] fortuneDistributions) {
+        maximum = Math.max(minimum, maximum);
+        for (int fortune = 1; fortune < fortuneQuantities.length; fortune++) {
+            // every pair of fortune roll and base quantity is equally likely
+            final int[] weightByQuantity = new int[maximum * (fortune + 1) + 1];
+            for (int roll = 0; roll < fortune + 2; roll++) {
+                final int multiplier = Math.max(roll - 1, 0) + 1;
+                for (int quantity = minimum; quantity <= maximum; quantity++) {
+                    weightByQuantity[quantity * multiplier]++;
+                }
+            }
+
+            int outcomes = 0;
+            for (final int weight : weightByQuantity) {
+                if (weight != 0) {
+                    outcomes++;
+                }
+            }
+            final int[] quantities = new int[outcomes];
+            final int[] weights = new int[outcomes];
+            for (int quantity = 0, i = 0; quantity < weightByQuantity.length; quantity++) {
+                if (weightByQuantity[quantity] != 0) {
+                    quantities[i] = quantity;
+                    weights[i++] = weightByQuantity[quantity];
+                }
+            }
+            fortuneQuantities[fortune] = quantities;
+            fortuneDistributions[fortune] = AliasTable.of(weights);
+        }
+    }
+
+    private final UnnamedBlock block;
+    private final Item item;
+    // whether the meta dropped is the block's variant, or 0
+    private final boolean variantMeta;
+    // whether the meta dropped is given by the delegate, instead
+    private final boolean delegateMeta;
+    private final int minimum;
+    private final int maximum;
+    private final boolean fortune;
+    @Nullable private final ItemDropBehaviour delegate;
+    // the quantities dropped, and their distribution, for each tabulated fortune level
+    private final int[][] fortuneQuantities;
+    private final AliasTable[] fortuneDistributions;
+
+    private DropTable(UnnamedBlock block, Item item, boolean variantMeta, boolean delegateMeta, int minimum, int maximum,
+            boolean fortune, @Nullable ItemDropBehaviour delegate, int[][] fortuneQuantities, AliasTable[] fortuneDistributions) {
+        this.block = block;
+        this.item = item;
+        this.variantMeta = variantMeta;
+        this.delegateMeta = delegateMeta;
+        this.minimum = minimum;
+        this.maximum = maximum;
+        this.fortune = fortune;
+        this.delegate = delegate;
+        this.fortuneQuantities = fortuneQuantities;
+        this.fortuneDistributions = fortuneDistributions;
+    }
+
+    /**
+     * Gets the item that will be dropped.
+     *
+     * @return The item
+     */
+    public Item getItem() {
+        return this.item;
+    }
+
+    /**
+     * Gets the metadata of the item that will be dropped.
+     *
+     * @param state The block state
+     * @return The meta
+     */
+    public int getMeta(IBlockState state) {
+        if (this.delegateMeta) {
+            return this.delegate.getMeta(this.block, state);
+        }
+        return this.variantMeta ? this.block.getVariant(state) : 0;
+    }
+
+    /**
+     * Gets the minimum quantity of items dropped, without fortune.
+     *
+     * @return The minimum quantity, or {@code 0} if the table is delegated
+     */
+    public int getMinimum() {
+        return this.minimum;
+    }
+
+    /**
+     * Gets the maximum quantity of items dropped, without fortune.
+     *
+     * @return The maximum quantity, or {@code 0} if the table is delegated
+     */
+    public int getMaximum() {
+        return this.maximum;
+    }
+
+    /**
+     * Gets whether fortune is applied to the quantity dropped.
+     *
+     * @return {@code true} if fortune is applied
+     */
+    public boolean isFortune() {
+        return this.fortune;
+    }
+
+    /**
+     * Gets the highest fortune level for which the quantities dropped are tabulated,
+     * and so sampled with a single random draw.
+     *
+     * @return The highest fortune level, or {@code 0} if none are tabulated
+     */
+    public int getTabulatedFortune() {
+        return Math.max(this.fortuneDistributions.length - 1, 0);
+    }
+
+    /**
+     * Gets whether the table delegates to an {@link ItemDropBehaviour} that couldn't
+     * be flattened.
+     *
+     * @return {@code true} if the table is delegated
+     */
+    public boolean isDelegated() {
+        return this.delegate != null;
+    }
+
+    /**
+     * Gets the quantity of items to be dropped.
+     *
+     * @param random The random
+     * @return The quantity dropped
+     */
+    public int getQuantity(Random random) {
+        if (this.delegate != null) {
+            return this.delegate.getQuantityDropped(random);
+        }
+        return this.minimum >= this.maximum ? this.minimum : random.nextInt(this.maximum - this.minimum + 1) + this.minimum;
+    }
+
+    /**
+     * Gets the quantity of items to be dropped, with bonus applied.
+     *
+     * @param fortune The fortune
+     * @param random The random
+     * @return The quantity dropped
+     */
+    public int getQuantityWithBonus(int fortune, Random random) {
+        if (this.delegate != null) {
+            return this.delegate.getQuantityDroppedWithBonus(fortune, random);
+        }
+
+        // based on code from BlockOre#quantityDroppedWithBonus(int, Random)
+        if (this.fortune && fortune > 0) {
+            if (fortune < this.fortuneDistributions.length) {
+                return this.fortuneQuantities[fortune][this.fortuneDistributions[fortune].sample(random)];
+            }
+
+            final int i = Math.max(random.nextInt(fortune + 2) - 1, 0);
+            return this.getQuantity(random) * (i + 1);
+        }
+        return this.getQuantity(random);
+    }
+
+}
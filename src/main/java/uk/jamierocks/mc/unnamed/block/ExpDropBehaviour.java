@@ -29,9 +29,6 @@ import net.minecraft.block.state.IBlockState;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.MathHelper;
 import net.minecraft.world.IBlockAccess;
-import net.minecraft.world.World;
-
-import java.util.Random;
 
 /**
  * An interface used to describe the behaviour for exp drops for an {@link UnnamedBlock}.
@@ -61,10 +58,20 @@ public interface ExpDropBehaviour {
      * @return The drop behaviour
      */
     static ExpDropBehaviour of(int minimum, int maximum) {
-        return (state, world, pos, fortune) -> {
-            final Random random = world instanceof World ? ((World) world).rand : new Random();
-            return MathHelper.getInt(random, minimum, maximum);
-        };
+        return of(minimum, maximum, DropRandom.DEFAULT);
+    }
+
+    /**
+     * Creates a drop behaviour that drops based on given exp quantity range, using
+     * the given source of randomness.
+     *
+     * @param minimum The minimum quantity of exp to drop
+     * @param maximum The maximum quantity of exp to drop
+     * @param random The source of randomness
+     * @return The drop behaviour
+     */
+    static ExpDropBehaviour of(int minimum, int maximum, DropRandom random) {
+        return (state, world, pos, fortune) -> MathHelper.getInt(random.get(world), minimum, maximum);
     }
 
     /**
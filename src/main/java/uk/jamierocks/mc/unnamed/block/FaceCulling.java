@@ -0,0 +1,113 @@
+/*
+ * This file is part of unnamed, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2017, Jamie Mansfield <https://www.jamierocks.uk/>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package uk.jamierocks.mc.unnamed.block;
+
+import net.minecraft.block.Block;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.util.EnumFacing;
+import net.minecraft.util.math.AxisAlignedBB;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.IBlockAccess;
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
+
+/**
+ * The face culling of {@link UnnamedBlock}s, used as chunks are meshed.
+ *
+ * Each face reads its neighbour once - where {@link Block} reads it twice, allocating
+ * a new position each time. A translucent face reads it through a mutable position
+ * local to the meshing thread, and looks the decision up in its block's
+ * {@link CullingTable}. An opaque face hands its position on to the neighbour's
+ * state, which may call back into here, so it reads through a position of its own.
+ */
+@SideOnly(Side.CLIENT)
+final class FaceCulling {
+
+    private static final ThreadLocal<BlockPos.MutableBlockPos> NEIGHBOUR = ThreadLocal.withInitial(BlockPos.MutableBlockPos::new);
+
+    // adapted from Block#shouldSideBeRendered(IBlockState, IBlockAccess, BlockPos, EnumFacing)
+    /**
+     * Gets whether the given side of an opaque block should be rendered.
+     *
+     * @param state The block state
+     * @param access The block access
+     * @param pos The position
+     * @param side The side
+     * @return {@code true} if the side should be rendered
+     */
+    static boolean shouldSideBeRendered(IBlockState state, IBlockAccess access, BlockPos pos, EnumFacing side) {
+        if (!touchesSide(state, access, pos, side)) {
+            return true;
+        }
+
+        final BlockPos neighbourPos = pos.offset(side);
+        return !access.getBlockState(neighbourPos).doesSideBlockRendering(access, neighbourPos, side.getOpposite());
+    }
+
+    // adapted from BlockGlass#shouldSideBeRendered(IBlockState, IBlockAccess, BlockPos, EnumFacing)
+    /**
+     * Gets whether the given side of a translucent block should be rendered, which is
+     * culled only against the same state, like glass.
+     *
+     * @param table The culling table of the block
+     * @param state The block state
+     * @param access The block access
+     * @param pos The position
+     * @param side The side
+     * @return {@code true} if the side should be rendered
+     */
+    static boolean shouldTranslucentSideBeRendered(CullingTable table, IBlockState state, IBlockAccess access, BlockPos pos,
+            EnumFacing side) {
+        // only the block access sees the position, which is done with once it returns
+        final BlockPos.MutableBlockPos neighbourPos = NEIGHBOUR.get().setPos(pos.getX() + side.getFrontOffsetX(),
+                pos.getY() + side.getFrontOffsetY(), pos.getZ() + side.getFrontOffsetZ());
+        return !table.isCulled(state, access.getBlockState(neighbourPos));
+    }
+
+    private static boolean touchesSide(IBlockState state, IBlockAccess access, BlockPos pos, EnumFacing side) {
+        final AxisAlignedBB box = state.getBoundingBox(access, pos);
+        switch (side) {
+            case DOWN:
+                return box.minY <= 0.0D;
+            case UP:
+                return box.maxY >= 1.0D;
+            case NORTH:
+                return box.minZ <= 0.0D;
+            case SOUTH:
+                return box.maxZ >= 1.0D;
+            case WEST:
+                return box.minX <= 0.0D;
+            case EAST:
+                return box.maxX >= 1.0D;
+            default:
+                return true;
+        }
+    }
+
+    private FaceCulling() {
+    }
+
+}
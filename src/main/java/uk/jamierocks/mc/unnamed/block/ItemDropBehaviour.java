@@ -25,9 +25,11 @@
 
 package uk.jamierocks.mc.unnamed.block;
 
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
 import net.minecraft.block.state.IBlockState;
 import net.minecraft.item.Item;
-import net.minecraft.util.math.MathHelper;
 
 import java.util.Optional;
 import java.util.Random;
@@ -55,7 +57,7 @@ public interface ItemDropBehaviour {
      * @return The drop behaviour
      */
     static ItemDropBehaviour of(int quantity) {
-        return (random) -> quantity;
+        return new RangedItemDrop(null, quantity, quantity);
     }
 
     /**
@@ -76,17 +78,7 @@ public interface ItemDropBehaviour {
      * @return The drop behaviour
      */
     static ItemDropBehaviour of(Supplier<Item> drop, int quantity) {
-        return new ItemDropBehaviour() {
-            @Override
-            public int getQuantityDropped(Random random) {
-                return quantity;
-            }
-
-            @Override
-            public Optional<Supplier<Item>> getDrop() {
-                return Optional.of(drop);
-            }
-        };
+        return new RangedItemDrop(checkNotNull(drop, "drop"), quantity, quantity);
     }
 
     /**
@@ -97,7 +89,7 @@ public interface ItemDropBehaviour {
      * @return The drop behaviour
      */
     static ItemDropBehaviour of(int minimum, int maximum) {
-        return (random) -> MathHelper.getInt(random, minimum, maximum);
+        return new RangedItemDrop(null, minimum, maximum);
     }
 
     /**
@@ -109,17 +101,7 @@ public interface ItemDropBehaviour {
      * @return The drop behaviour
      */
     static ItemDropBehaviour of(Supplier<Item> drop, int minimum, int maximum) {
-        return new ItemDropBehaviour() {
-            @Override
-            public int getQuantityDropped(Random random) {
-                return MathHelper.getInt(random, minimum, maximum);
-            }
-
-            @Override
-            public Optional<Supplier<Item>> getDrop() {
-                return Optional.of(drop);
-            }
-        };
+        return new RangedItemDrop(checkNotNull(drop, "drop"), minimum, maximum);
     }
 
     /**
@@ -153,13 +135,14 @@ public interface ItemDropBehaviour {
 
     /**
      * Gets the metadata.
+     * If the block will be dropped, this is its {@link UnnamedBlock#getVariant(IBlockState) variant}.
      *
      * @param block The unnamed block
      * @param blockState The block state
      * @return The meta
      */
     default int getMeta(UnnamedBlock block, IBlockState blockState) {
-        return 0;
+        return this.getDrop().isPresent() ? 0 : block.getVariant(blockState);
     }
 
     /**
@@ -179,7 +162,7 @@ public interface ItemDropBehaviour {
          * @return The drop behaviour
          */
         static Fortune of(int quantity) {
-            return (random) -> quantity;
+            return new RangedItemDrop.Fortune(null, quantity, quantity, false);
         }
 
         /**
@@ -190,17 +173,7 @@ public interface ItemDropBehaviour {
          * @return The drop behaviour
          */
         static Fortune of(Supplier<Item> drop, int quantity) {
-            return new Fortune() {
-                @Override
-                public int getQuantityDropped(Random random) {
-                    return quantity;
-                }
-
-                @Override
-                public Optional<Supplier<Item>> getDrop() {
-                    return Optional.of(drop);
-                }
-            };
+            return new RangedItemDrop.Fortune(checkNotNull(drop, "drop"), quantity, quantity, false);
         }
 
         /**
@@ -211,7 +184,7 @@ public interface ItemDropBehaviour {
          * @return The drop behaviour
          */
         static Fortune of(int minimum, int maximum) {
-            return (random) -> MathHelper.getInt(random, minimum, maximum);
+            return new RangedItemDrop.Fortune(null, minimum, maximum, false);
         }
 
         /**
@@ -223,17 +196,42 @@ public interface ItemDropBehaviour {
          * @return The drop behaviour
          */
         static Fortune of(Supplier<Item> drop, int minimum, int maximum) {
-            return new Fortune() {
-                @Override
-                public int getQuantityDropped(Random random) {
-                    return MathHelper.getInt(random, minimum, maximum);
-                }
+            return new RangedItemDrop.Fortune(checkNotNull(drop, "drop"), minimum, maximum, false);
+        }
 
-                @Override
-                public Optional<Supplier<Item>> getDrop() {
-                    return Optional.of(drop);
-                }
-            };
+        /**
+         * Creates a drop behaviour that drops based on given item quantity range,
+         * with the quantities dropped with fortune tabulated.
+         *
+         * <p>For each fortune level, the distribution of the quantities dropped is
+         * computed when the block's drops are resolved, and is then sampled with a
+         * single random draw, rather than one draw for the fortune and another for
+         * the quantity. The distribution is exactly that of
+         * {@link #of(Supplier, int, int)}, but the quantities drawn for a given
+         * random differ.</p>
+         *
+         * @param drop The item to be dropped
+         * @param minimum The minimum quantity of items to drop
+         * @param maximum The maximum quantity of items to drop
+         * @return The drop behaviour
+         */
+        static Fortune tabulated(Supplier<Item> drop, int minimum, int maximum) {
+            checkArgument(minimum >= 0, "The minimum quantity can't be negative!");
+            return new RangedItemDrop.Fortune(checkNotNull(drop, "drop"), minimum, maximum, true);
+        }
+
+        /**
+         * Creates a drop behaviour that drops the block, based on given item quantity
+         * range, with the quantities dropped with fortune tabulated - see
+         * {@link #tabulated(Supplier, int, int)}.
+         *
+         * @param minimum The minimum quantity of items to drop
+         * @param maximum The maximum quantity of items to drop
+         * @return The drop behaviour
+         */
+        static Fortune tabulated(int minimum, int maximum) {
+            checkArgument(minimum >= 0, "The minimum quantity can't be negative!");
+            return new RangedItemDrop.Fortune(null, minimum, maximum, true);
         }
 
         // based on code from BlockOre#quantityDroppedWithBonus(int, Random)
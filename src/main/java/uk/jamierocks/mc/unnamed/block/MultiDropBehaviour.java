@@ -0,0 +1,293 @@
+/*
+ * This file is part of unnamed, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2017, Jamie Mansfield <https://www.jamierocks.uk/>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package uk.jamierocks.mc.unnamed.block;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+import net.minecraft.init.Items;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * A behaviour for dropping several items from an {@link UnnamedBlock}, such as an
+ * ore with a rare secondary drop.
+ *
+ * <p>Drops are made up of pools, each of which is rolled a number of times. Each roll
+ * picks one of the pool's weighted entries, which are compiled into an alias table
+ * when built, so that picking an entry is constant time however many entries
+ * there are.</p>
+ */
+public final class MultiDropBehaviour {
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    private final Pool[] pools;
+
+    private MultiDropBehaviour(Pool[] pools) {
+        this.pools = pools;
+    }
+
+    /**
+     * Resolves the items of every entry. This should be called once the registries
+     * are frozen, and again if they change.
+     */
+    void resolve() {
+        for (final Pool pool : this.pools) {
+            pool.resolve();
+        }
+    }
+
+    /**
+     * Rolls every pool, adding the items dropped to the given list.
+     *
+     * @param drops The list to add the drops to
+     * @param random The random
+     * @param fortune The fortune
+     */
+    public void addDrops(List<ItemStack> drops, Random random, int fortune) {
+        for (final Pool pool : this.pools) {
+            pool.addDrops(drops, random, fortune);
+        }
+    }
+
+    private static final class Pool {
+
+        private final int rolls;
+        private final boolean fortune;
+        private final AliasTable table;
+        private final Supplier<Item>[] drops;
+        private final int[] metas;
+        private final int[] minimums;
+        private final int[] maximums;
+        private Item[] items;
+
+        private Pool(int rolls, boolean fortune, AliasTable table, Supplier<Item>[] drops, int[] metas, int[] minimums,
+                int[] maximums) {
+            this.rolls = rolls;
+            this.fortune = fortune;
+            this.table = table;
+            this.drops = drops;
+            this.metas = metas;
+            this.minimums = minimums;
+            this.maximums = maximums;
+        }
+
+        private void resolve() {
+            final Item[] items = new Item[this.drops.length];
+            for (int i = 0; i < items.length; i++) {
+                final Item item = this.drops[i] != null ? this.drops[i].get() : null;
+                items[i] = item != Items.AIR ? item : null;
+            }
+            this.items = items;
+        }
+
+        private void addDrops(List<ItemStack> drops, Random random, int fortune) {
+            if (this.items == null) {
+                this.resolve();
+            }
+
+            for (int roll = 0; roll < this.rolls; roll++) {
+                final int entry = this.table.sample(random);
+                final Item item = this.items[entry];
+                if (item == null) {
+                    continue;
+                }
+
+                final int minimum = this.minimums[entry];
+                final int maximum = this.maximums[entry];
+                int quantity = minimum >= maximum ? minimum : random.nextInt(maximum - minimum + 1) + minimum;
+                // based on code from BlockOre#quantityDroppedWithBonus(int, Random)
+                if (this.fortune && fortune > 0) {
+                    quantity *= Math.max(random.nextInt(fortune + 2) - 1, 0) + 1;
+                }
+                if (quantity > 0) {
+                    drops.add(new ItemStack(item, quantity, this.metas[entry]));
+                }
+            }
+        }
+
+    }
+
+    public static class Builder {
+
+        private final List<PoolBuilder> pools = new ArrayList<>();
+        private PoolBuilder pool;
+
+        private Builder() {
+        }
+
+        /**
+         * Starts a new pool, rolled once.
+         *
+         * @return The builder
+         */
+        public Builder pool() {
+            return this.pool(1);
+        }
+
+        /**
+         * Starts a new pool, rolled the given number of times.
+         *
+         * @param rolls The number of rolls
+         * @return The builder
+         */
+        public Builder pool(int rolls) {
+            checkArgument(rolls > 0, "A pool must be rolled at least once!");
+            this.pool = new PoolBuilder(rolls);
+            this.pools.add(this.pool);
+            return this;
+        }
+
+        /**
+         * Applies fortune to the quantities dropped by the current pool.
+         *
+         * @return The builder
+         */
+        public Builder fortune() {
+            this.currentPool().fortune = true;
+            return this;
+        }
+
+        /**
+         * Adds an entry to the current pool, dropping one of the given item.
+         *
+         * @param drop The item to be dropped
+         * @param weight The weight of the entry
+         * @return The builder
+         */
+        public Builder entry(Supplier<Item> drop, int weight) {
+            return this.entry(drop, 0, 1, 1, weight);
+        }
+
+        /**
+         * Adds an entry to the current pool, dropping a quantity of the given item
+         * within the given range.
+         *
+         * @param drop The item to be dropped
+         * @param minimum The minimum quantity of items to drop
+         * @param maximum The maximum quantity of items to drop
+         * @param weight The weight of the entry
+         * @return The builder
+         */
+        public Builder entry(Supplier<Item> drop, int minimum, int maximum, int weight) {
+            return this.entry(drop, 0, minimum, maximum, weight);
+        }
+
+        /**
+         * Adds an entry to the current pool, dropping a quantity of the given item
+         * and metadata within the given range.
+         *
+         * @param drop The item to be dropped
+         * @param meta The metadata of the item
+         * @param minimum The minimum quantity of items to drop
+         * @param maximum The maximum quantity of items to drop
+         * @param weight The weight of the entry
+         * @return The builder
+         */
+        public Builder entry(Supplier<Item> drop, int meta, int minimum, int maximum, int weight) {
+            checkNotNull(drop, "drop");
+            checkArgument(minimum >= 0 && minimum <= maximum, "Invalid quantity range %s-%s!", minimum, maximum);
+            this.currentPool().add(drop, meta, minimum, maximum, weight);
+            return this;
+        }
+
+        /**
+         * Adds an entry to the current pool, dropping nothing.
+         *
+         * @param weight The weight of the entry
+         * @return The builder
+         */
+        public Builder nothing(int weight) {
+            this.currentPool().add(null, 0, 0, 0, weight);
+            return this;
+        }
+
+        public MultiDropBehaviour build() {
+            checkState(!this.pools.isEmpty(), "At least one pool is required to build a multi drop!");
+
+            final Pool[] pools = new Pool[this.pools.size()];
+            for (int i = 0; i < pools.length; i++) {
+                pools[i] = this.pools.get(i).build();
+            }
+            return new MultiDropBehaviour(pools);
+        }
+
+        private PoolBuilder currentPool() {
+            checkState(this.pool != null, "A pool must be started first!");
+            return this.pool;
+        }
+
+    }
+
+    private static final class PoolBuilder {
+
+        private final int rolls;
+        private boolean fortune;
+        private final List<Supplier<Item>> drops = new ArrayList<>();
+        private final List<int[]> entries = new ArrayList<>();
+
+        private PoolBuilder(int rolls) {
+            this.rolls = rolls;
+        }
+
+        private void add(Supplier<Item> drop, int meta, int minimum, int maximum, int weight) {
+            checkArgument(weight >= 0, "Weights can't be negative!");
+            this.drops.add(drop);
+            this.entries.add(new int[] { meta, minimum, maximum, weight });
+        }
+
+        @SuppressWarnings("unchecked")
+        private Pool build() {
+            checkState(!this.entries.isEmpty(), "A pool requires at least one entry!");
+
+            final int size = this.entries.size();
+            final int[] metas = new int[size];
+            final int[] minimums = new int[size];
+            final int[] maximums = new int[size];
+            final int[] weights = new int[size];
+            for (int i = 0; i < size; i++) {
+                final int[] entry = this.entries.get(i);
+                metas[i] = entry[0];
+                minimums[i] = entry[1];
+                maximums[i] = entry[2];
+                weights[i] = entry[3];
+            }
+            return new Pool(this.rolls, this.fortune, AliasTable.of(weights), this.drops.toArray(new Supplier[size]), metas,
+                    minimums, maximums);
+        }
+
+    }
+
+}
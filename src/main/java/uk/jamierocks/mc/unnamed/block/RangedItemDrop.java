@@ -0,0 +1,106 @@
+/*
+ * This file is part of unnamed, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2017, Jamie Mansfield <https://www.jamierocks.uk/>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package uk.jamierocks.mc.unnamed.block;
+
+import net.minecraft.item.Item;
+import net.minecraft.util.math.MathHelper;
+
+import java.util.Optional;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import javax.annotation.Nullable;
+
+/**
+ * An {@link ItemDropBehaviour} that drops a quantity of items within a range, created
+ * by the factories of {@link ItemDropBehaviour}. Unlike other behaviours, these can
+ * be flattened into a {@link DropTable}.
+ */
+class RangedItemDrop implements ItemDropBehaviour {
+
+    @Nullable private final Supplier<Item> drop;
+    private final int minimum;
+    private final int maximum;
+
+    RangedItemDrop(@Nullable Supplier<Item> drop, int minimum, int maximum) {
+        this.drop = drop;
+        this.minimum = minimum;
+        this.maximum = maximum;
+    }
+
+    /**
+     * Gets the supplier of the item to be dropped.
+     *
+     * @return The supplier, or {@code null} if the block will be dropped
+     */
+    @Nullable
+    Supplier<Item> getDropSupplier() {
+        return this.drop;
+    }
+
+    int getMinimum() {
+        return this.minimum;
+    }
+
+    int getMaximum() {
+        return this.maximum;
+    }
+
+    @Override
+    public int getQuantityDropped(Random random) {
+        return MathHelper.getInt(random, this.minimum, this.maximum);
+    }
+
+    @Override
+    public Optional<Supplier<Item>> getDrop() {
+        return Optional.ofNullable(this.drop);
+    }
+
+    /**
+     * A {@link RangedItemDrop} that applies fortune.
+     */
+    static class Fortune extends RangedItemDrop implements ItemDropBehaviour.Fortune {
+
+        private final boolean tabulated;
+
+        Fortune(@Nullable Supplier<Item> drop, int minimum, int maximum, boolean tabulated) {
+            super(drop, minimum, maximum);
+            this.tabulated = tabulated;
+        }
+
+        /**
+         * Gets whether the quantities dropped with fortune are tabulated, see
+         * {@link ItemDropBehaviour.Fortune#tabulated(Supplier, int, int)}.
+         *
+         * @return {@code true} if tabulated
+         */
+        boolean isTabulated() {
+            return this.tabulated;
+        }
+
+    }
+
+}
@@ -0,0 +1,164 @@
+/*
+ * This file is part of unnamed, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2017, Jamie Mansfield <https://www.jamierocks.uk/>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package uk.jamierocks.mc.unnamed.block;
+
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.util.BlockRenderLayer;
+import net.minecraft.util.EnumFacing;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.IBlockAccess;
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
+
+import java.util.Random;
+
+/**
+ * The specialized subclasses of {@link UnnamedBlock}, built by
+ * {@link UnnamedBlock.Builder#specialize()} - one for each combination of traits.
+ *
+ * Where {@link UnnamedBlock} branches on its traits, these return constants, which
+ * the JIT can fold, and only ever take the one path.
+ */
+final class SpecializedBlocks {
+
+    /**
+     * An opaque block.
+     */
+    static class Opaque extends UnnamedBlock {
+
+        Opaque(UnnamedBlock.Builder builder) {
+            super(builder);
+        }
+
+        @SideOnly(Side.CLIENT)
+        @Override
+        public final BlockRenderLayer getBlockLayer() {
+            return BlockRenderLayer.SOLID;
+        }
+
+        @Override
+        public final boolean isFullCube(IBlockState state) {
+            return true;
+        }
+
+        @Override
+        public final boolean isOpaqueCube(IBlockState state) {
+            return true;
+        }
+
+        @SideOnly(Side.CLIENT)
+        @Override
+        public final boolean shouldSideBeRendered(IBlockState blockState, IBlockAccess blockAccess, BlockPos pos, EnumFacing side) {
+            return FaceCulling.shouldSideBeRendered(blockState, blockAccess, pos, side);
+        }
+
+    }
+
+    /**
+     * An opaque block, always dropping the same quantity of items.
+     */
+    static final class OpaqueConstantDrop extends Opaque {
+
+        private final int quantity;
+
+        OpaqueConstantDrop(UnnamedBlock.Builder builder, int quantity) {
+            super(builder);
+            this.quantity = quantity;
+        }
+
+        @Override
+        public int quantityDropped(Random random) {
+            return this.quantity;
+        }
+
+        @Override
+        public int quantityDroppedWithBonus(int fortune, Random random) {
+            return this.quantity;
+        }
+
+    }
+
+    /**
+     * A translucent block.
+     */
+    static class Translucent extends UnnamedBlock {
+
+        Translucent(UnnamedBlock.Builder builder) {
+            super(builder);
+        }
+
+        @SideOnly(Side.CLIENT)
+        @Override
+        public final BlockRenderLayer getBlockLayer() {
+            return BlockRenderLayer.TRANSLUCENT;
+        }
+
+        @Override
+        public final boolean isFullCube(IBlockState state) {
+            return false;
+        }
+
+        @Override
+        public final boolean isOpaqueCube(IBlockState state) {
+            return false;
+        }
+
+        @SideOnly(Side.CLIENT)
+        @Override
+        public final boolean shouldSideBeRendered(IBlockState blockState, IBlockAccess blockAccess, BlockPos pos, EnumFacing side) {
+            return FaceCulling.shouldTranslucentSideBeRendered(this.getCullingTable(), blockState, blockAccess, pos, side);
+        }
+
+    }
+
+    /**
+     * A translucent block, always dropping the same quantity of items.
+     */
+    static final class TranslucentConstantDrop extends Translucent {
+
+        private final int quantity;
+
+        TranslucentConstantDrop(UnnamedBlock.Builder builder, int quantity) {
+            super(builder);
+            this.quantity = quantity;
+        }
+
+        @Override
+        public int quantityDropped(Random random) {
+            return this.quantity;
+        }
+
+        @Override
+        public int quantityDroppedWithBonus(int fortune, Random random) {
+            return this.quantity;
+        }
+
+    }
+
+    private SpecializedBlocks() {
+    }
+
+}
@@ -25,26 +25,40 @@
 
 package uk.jamierocks.mc.unnamed.block;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
 
 import net.minecraft.block.Block;
 import net.minecraft.block.SoundType;
 import net.minecraft.block.material.Material;
 import net.minecraft.block.state.IBlockState;
 import net.minecraft.creativetab.CreativeTabs;
+import net.minecraft.init.Items;
 import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
 import net.minecraft.util.BlockRenderLayer;
 import net.minecraft.util.EnumFacing;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.IBlockAccess;
+import net.minecraft.world.World;
+import net.minecraftforge.event.ForgeEventFactory;
 import net.minecraftforge.fml.common.Loader;
 import net.minecraftforge.fml.relauncher.Side;
 import net.minecraftforge.fml.relauncher.SideOnly;
+import uk.jamierocks.mc.unnamed.metrics.BlockDropMetrics;
+import uk.jamierocks.mc.unnamed.metrics.DropMetrics;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Random;
 import java.util.function.Consumer;
 
+import javax.annotation.Nullable;
+
 /**
  * An extension of {@link Block} used by the Unnamed block builder system, to allow for
  * the creation of blocks through said system.
@@ -53,57 +67,213 @@ import java.util.function.Consumer;
  * them with the various behaviours that are defined by the user or the ones provided by
  * Unnamed.
  */
-public final class UnnamedBlock extends Block {
+public class UnnamedBlock extends Block {
 
     public static Builder builder() {
         return new Builder();
     }
 
+    // the fortune of the exp last calculated, for it to be counted once dropped
+    private static final ThreadLocal<Integer> EXP_FORTUNE = ThreadLocal.withInitial(() -> 0);
+
     private final boolean unnamedTranslucent; // Minecraft has its own translucent field
     private final boolean silkHarvest;
     private final ItemDropBehaviour itemDropBehaviour;
     private final ExpDropBehaviour expDropBehaviour;
+    @Nullable private final MultiDropBehaviour multiDropBehaviour;
+    @Nullable private final DropCoalescer dropCoalescer;
+    @Nullable private final BlockDropMetrics dropMetrics;
+    private DropTable dropTable;
+    private CullingTable cullingTable;
+
+    UnnamedBlock(Builder builder) {
+        super(builder.material);
+        this.unnamedTranslucent = builder.translucent;
+        this.silkHarvest = builder.silkHarvest;
+        this.itemDropBehaviour = builder.itemDropBehaviour;
+        this.expDropBehaviour = builder.expDropBehaviour;
+        this.multiDropBehaviour = builder.multiDropBehaviour;
+        this.dropCoalescer = builder.coalesceDrops ? DropCoalescer.get() : null;
+
+        // adapted from Block#Block(Material, MapColor), which asks before translucency is set
+        this.fullBlock = this.getDefaultState().isOpaqueCube();
+        this.lightOpacity = this.fullBlock ? 255 : 0;
+
+        this.setRegistryName(builder.identifier);
+        this.setUnlocalizedName(Loader.instance().activeModContainer().getModId().toLowerCase() + "." + builder.identifier);
+        this.dropMetrics = builder.dropMetrics != null ? builder.dropMetrics.forBlock(this.getRegistryName().toString()) : null;
+    }
+
+    /**
+     * Resolves the block's {@link DropTable}, from its {@link ItemDropBehaviour}.
+     * This should be called once the registries are frozen, and again if they change.
+     */
+    public void resolveDrops() {
+        this.dropTable = DropTable.resolve(this, this.itemDropBehaviour);
+        if (this.multiDropBehaviour != null) {
+            this.multiDropBehaviour.resolve();
+        }
+    }
 
-    private UnnamedBlock(String identifier, Material materialIn, boolean translucent, boolean silkHarvest,
-            ItemDropBehaviour itemDropBehaviour, ExpDropBehaviour expDropBehaviour) {
-        super(materialIn);
-        this.unnamedTranslucent = translucent;
-        this.silkHarvest = silkHarvest;
-        this.itemDropBehaviour = itemDropBehaviour;
-        this.expDropBehaviour = expDropBehaviour;
+    /**
+     * Gets the block's {@link DropTable}, resolving it if it has yet to be.
+     *
+     * @return The drop table
+     */
+    public DropTable getDropTable() {
+        if (this.dropTable == null) {
+            this.resolveDrops();
+        }
+        return this.dropTable;
+    }
 
-        this.setRegistryName(identifier);
-        this.setUnlocalizedName(Loader.instance().activeModContainer().getModId().toLowerCase() + "." + identifier);
+    /**
+     * Gets the block's {@link CullingTable}, compiling it if it has yet to be.
+     *
+     * @return The culling table
+     */
+    CullingTable getCullingTable() {
+        // the table is immutable, so meshing threads racing to compile it is harmless
+        if (this.cullingTable == null) {
+            this.cullingTable = CullingTable.of(this);
+        }
+        return this.cullingTable;
+    }
+
+    /**
+     * Gets the variant of the given state, which is always {@code 0} unless the
+     * block was built with {@link Builder#variant(String, Builder) variants}.
+     *
+     * @param state The block state
+     * @return The variant
+     */
+    public int getVariant(IBlockState state) {
+        return 0;
     }
 
     @Override
     public Item getItemDropped(IBlockState state, Random rand, int fortune) {
-        if (this.itemDropBehaviour.getDrop().isPresent()) {
-            return this.itemDropBehaviour.getDrop().get().get();
-        }
-        return super.getItemDropped(state, rand, fortune);
+        return this.getDropTable().getItem();
     }
 
     @Override
     public int quantityDropped(Random random) {
-        return this.itemDropBehaviour.getQuantityDropped(random);
+        return this.getDropTable().getQuantity(random);
     }
 
     @Override
     public int quantityDroppedWithBonus(int fortune, Random random) {
-        return this.itemDropBehaviour.getQuantityDroppedWithBonus(fortune, random);
+        return this.getDropTable().getQuantityWithBonus(fortune, random);
+    }
+
+    /**
+     * Records items dropped by the block, if its drops are being counted.
+     *
+     * @param fortune The fortune
+     * @param quantity The quantity of items dropped
+     */
+    private void recordItems(int fortune, int quantity) {
+        if (this.dropMetrics != null) {
+            this.dropMetrics.recordItems(fortune, quantity);
+        }
     }
 
     @Override
     public int damageDropped(IBlockState state) {
-        return this.itemDropBehaviour.getMeta(this, state);
+        return this.getDropTable().getMeta(state);
+    }
+
+    @Override
+    public List<ItemStack> getDrops(IBlockAccess world, BlockPos pos, IBlockState state, int fortune) {
+        final Random random = DropRandom.DEFAULT.get(world);
+        // the drops are written straight into the list that is returned
+        final List<ItemStack> drops = new ArrayList<>();
+        if (this.multiDropBehaviour != null) {
+            this.multiDropBehaviour.addDrops(drops, random, fortune);
+            return drops;
+        }
+
+        // adapted from Block#getDrops(IBlockAccess, BlockPos, IBlockState, int)
+        final int count = this.quantityDropped(state, fortune, random);
+        for (int i = 0; i < count; i++) {
+            final Item item = this.getItemDropped(state, random, fortune);
+            if (item != Items.AIR) {
+                drops.add(new ItemStack(item, 1, this.damageDropped(state)));
+            }
+        }
+        return drops;
+    }
+
+    @Override
+    public void dropBlockAsItemWithChance(World worldIn, BlockPos pos, IBlockState state, float chance, int fortune) {
+        // adapted from Block#dropBlockAsItemWithChance(World, BlockPos, IBlockState, float, int)
+        if (!worldIn.isRemote && !worldIn.restoringBlockSnapshots) {
+            final List<ItemStack> items = this.getDrops(worldIn, pos, state, fortune);
+            final float dropChance = ForgeEventFactory.fireBlockHarvesting(items, worldIn, pos, state, fortune, chance, false,
+                    this.harvesters.get());
+
+            // captured drops are spawned by whoever captures them, if at all, so aren't counted
+            final boolean captured = this.captureDrops.get();
+            final boolean spawned = !captured && worldIn.getGameRules().getBoolean("doTileDrops");
+            final boolean coalesce = this.dropCoalescer != null && !captured;
+            for (final ItemStack item : items) {
+                if (worldIn.rand.nextFloat() <= dropChance) {
+                    // only the items actually spawned are counted
+                    if (spawned) {
+                        this.recordItems(fortune, item.getCount());
+                    }
+                    if (coalesce) {
+                        this.dropCoalescer.addItem(worldIn, pos, item);
+                    } else {
+                        spawnAsEntity(worldIn, pos, item);
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    public void dropXpOnBlockBreak(World worldIn, BlockPos pos, int amount) {
+        // adapted from Block#dropXpOnBlockBreak(World, BlockPos, int)
+        if (!worldIn.isRemote && worldIn.getGameRules().getBoolean("doTileDrops")) {
+            // only the exp actually dropped is counted, which getExpDrop can't know of
+            this.recordExp(EXP_FORTUNE.get(), amount);
+            if (this.dropCoalescer != null) {
+                this.dropCoalescer.addExp(worldIn, pos, amount);
+            } else {
+                super.dropXpOnBlockBreak(worldIn, pos, amount);
+            }
+        }
     }
 
     @Override
     public int getExpDrop(IBlockState state, IBlockAccess world, BlockPos pos, int fortune) {
+        this.setExpFortune(fortune);
         return this.expDropBehaviour.getQuantityDropped(state, world, pos, fortune);
     }
 
+    /**
+     * Sets the fortune the exp about to be dropped was calculated with, as Forge
+     * calculates the exp of a break before it drops it - if it drops it at all.
+     *
+     * @param fortune The fortune
+     */
+    final void setExpFortune(int fortune) {
+        EXP_FORTUNE.set(fortune);
+    }
+
+    /**
+     * Records exp dropped by the block, if its drops are being counted.
+     *
+     * @param fortune The fortune
+     * @param quantity The quantity of exp dropped
+     */
+    private void recordExp(int fortune, int quantity) {
+        if (this.dropMetrics != null) {
+            this.dropMetrics.recordExp(fortune, quantity);
+        }
+    }
+
     @Override
     protected boolean canSilkHarvest() {
         return this.silkHarvest;
@@ -147,13 +317,9 @@ public final class UnnamedBlock extends Block {
     @SideOnly(Side.CLIENT)
     public boolean shouldSideBeRendered(IBlockState blockState, IBlockAccess blockAccess, BlockPos pos, EnumFacing side) {
         if (this.unnamedTranslucent) {
-            // adapted from BlockGlass#shouldSideBeRendered(IBlockState, IBlockAccess, BlockPos, EnumFacing)
-            final IBlockState iblockstate = blockAccess.getBlockState(pos.offset(side));
-            final Block block = iblockstate.getBlock();
-
-            return blockState != iblockstate || block != this && super.shouldSideBeRendered(blockState, blockAccess, pos, side);
+            return FaceCulling.shouldTranslucentSideBeRendered(this.getCullingTable(), blockState, blockAccess, pos, side);
         } else {
-            return super.shouldSideBeRendered(blockState, blockAccess, pos, side);
+            return FaceCulling.shouldSideBeRendered(blockState, blockAccess, pos, side);
         }
     }
 
@@ -170,8 +336,14 @@ public final class UnnamedBlock extends Block {
         private Optional<SoundType> soundType = Optional.empty();
         private ItemDropBehaviour itemDropBehaviour = ItemDropBehaviour.DEFAULT;
         private ExpDropBehaviour expDropBehaviour = ExpDropBehaviour.DEFAULT;
+        private MultiDropBehaviour multiDropBehaviour;
+        private boolean coalesceDrops = false;
+        private DropMetrics dropMetrics;
         private Optional<Float> hardness = Optional.empty();
         private Optional<Float> resistance = Optional.empty();
+        private boolean specialize = false;
+        private boolean connectedTextures = false;
+        private final Map<String, Builder> variants = new LinkedHashMap<>();
 
         private Builder() {
         }
@@ -221,6 +393,21 @@ public final class UnnamedBlock extends Block {
             return this;
         }
 
+        public Builder drop(MultiDropBehaviour dropBehaviour) {
+            this.multiDropBehaviour = dropBehaviour;
+            return this;
+        }
+
+        public Builder coalesceDrops() {
+            this.coalesceDrops = true;
+            return this;
+        }
+
+        public Builder metrics(DropMetrics dropMetrics) {
+            this.dropMetrics = dropMetrics;
+            return this;
+        }
+
         public Builder hardness(float hardness) {
             this.hardness = Optional.of(hardness);
             return this;
@@ -231,11 +418,44 @@ public final class UnnamedBlock extends Block {
             return this;
         }
 
+        public Builder specialize() {
+            this.specialize = true;
+            return this;
+        }
+
+        public Builder connectedTextures() {
+            this.connectedTextures = true;
+            return this;
+        }
+
+        /**
+         * Adds a variant to the block, stored in its metadata, with the hardness,
+         * resistance, sound, translucency, silk harvesting and drops of the given
+         * builder - where the given builder has none, the hardness, resistance and
+         * sound are those of this builder.
+         *
+         * <p>A block can have from 2 to 16 variants, which all share a single block ID. A
+         * block with variants can't be {@link #specialize() specialized} or have
+         * {@link #connectedTextures() connected textures}, nor can its variants.</p>
+         *
+         * @param name The name of the variant
+         * @param variant The builder of the variant
+         * @return The builder
+         */
+        public Builder variant(String name, Builder variant) {
+            checkNotNull(name, "name");
+            checkNotNull(variant, "variant");
+            checkArgument(!this.variants.containsKey(name), "The variant " + name + " already exists!");
+            checkArgument(this.variants.size() < VariantBlock.MAX_VARIANTS, "A block can't have more than "
+                    + VariantBlock.MAX_VARIANTS + " variants!");
+            this.variants.put(name, variant);
+            return this;
+        }
+
         public UnnamedBlock build() {
             checkNotNull(this.identifier, "An identifier is required to build a block!");
 
-            final UnnamedBlock block = new UnnamedBlock(this.identifier, this.material, this.translucent, this.silkHarvest,
-                    this.itemDropBehaviour, this.expDropBehaviour);
+            final UnnamedBlock block = this.create();
 
             this.creativeTab.ifPresent(block::setCreativeTab);
             this.hardness.ifPresent(block::setHardness);
@@ -245,6 +465,80 @@ public final class UnnamedBlock extends Block {
             return block;
         }
 
+        private UnnamedBlock create() {
+            if (!this.variants.isEmpty()) {
+                checkState(this.variants.size() > 1, "The block " + this.identifier + " must have at least two variants!");
+                checkState(!this.specialize && !this.connectedTextures,
+                        "The block " + this.identifier + " has variants, so can't be specialized or have connected textures!");
+                for (final Map.Entry<String, Builder> variant : this.variants.entrySet()) {
+                    final Builder builder = variant.getValue();
+                    checkState(builder.variants.isEmpty() && !builder.specialize && !builder.connectedTextures,
+                            "The variant " + variant.getKey() + " of the block " + this.identifier
+                                    + " can't have variants, be specialized or have connected textures!");
+                }
+                return new VariantBlock(this);
+            }
+            if (this.connectedTextures) {
+                checkState(this.translucent, "Only translucent blocks can have connected textures!");
+                return new ConnectedBlock(this);
+            }
+            if (!this.specialize) {
+                return new UnnamedBlock(this);
+            }
+
+            // a behaviour always dropping the same quantity, regardless of fortune
+            final int constantDrop = this.itemDropBehaviour instanceof RangedItemDrop
+                    && !(this.itemDropBehaviour instanceof ItemDropBehaviour.Fortune)
+                    && ((RangedItemDrop) this.itemDropBehaviour).getMinimum() >= ((RangedItemDrop) this.itemDropBehaviour).getMaximum()
+                    ? ((RangedItemDrop) this.itemDropBehaviour).getMinimum() : -1;
+
+            if (this.translucent) {
+                return constantDrop >= 0 ? new SpecializedBlocks.TranslucentConstantDrop(this, constantDrop)
+                        : new SpecializedBlocks.Translucent(this);
+            }
+            return constantDrop >= 0 ? new SpecializedBlocks.OpaqueConstantDrop(this, constantDrop)
+                    : new SpecializedBlocks.Opaque(this);
+        }
+
+        // read by VariantBlock, for each of its variants
+
+        Map<String, Builder> getVariants() {
+            return this.variants;
+        }
+
+        boolean isTranslucent() {
+            return this.translucent;
+        }
+
+        boolean isSilkHarvest() {
+            return this.silkHarvest;
+        }
+
+        Optional<SoundType> getSoundType() {
+            return this.soundType;
+        }
+
+        ItemDropBehaviour getItemDropBehaviour() {
+            return this.itemDropBehaviour;
+        }
+
+        ExpDropBehaviour getExpDropBehaviour() {
+            return this.expDropBehaviour;
+        }
+
+        @Nullable
+        MultiDropBehaviour getMultiDropBehaviour() {
+            return this.multiDropBehaviour;
+        }
+
+        Optional<Float> getHardness() {
+            return this.hardness;
+        }
+
+        Optional<Float> getResistance() {
+            return this.resistance;
+        }
+
     }
 
 }
@@ -0,0 +1,314 @@
+/*
+ * This file is part of unnamed, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2017, Jamie Mansfield <https://www.jamierocks.uk/>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package uk.jamierocks.mc.unnamed.block;
+
+import net.minecraft.block.SoundType;
+import net.minecraft.block.properties.PropertyInteger;
+import net.minecraft.block.state.BlockStateContainer;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.creativetab.CreativeTabs;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraft.util.BlockRenderLayer;
+import net.minecraft.util.EnumFacing;
+import net.minecraft.util.NonNullList;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.Explosion;
+import net.minecraft.world.IBlockAccess;
+import net.minecraft.world.World;
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import javax.annotation.Nullable;
+
+/**
+ * An {@link UnnamedBlock} with up to 16 variants stored in its metadata, built by
+ * {@link UnnamedBlock.Builder#variant(String, UnnamedBlock.Builder)}, so that the
+ * variants share a single block ID.
+ *
+ * Everything that differs between variants is held in arrays indexed by the
+ * variant, which is the metadata of its state.
+ */
+public final class VariantBlock extends UnnamedBlock {
+
+    /**
+     * The most variants a block can have, as many as there are metadata values.
+     */
+    public static final int MAX_VARIANTS = 16;
+
+    // the block state is created by Block's constructor, before the property can be set
+    private static final ThreadLocal<PropertyInteger> CONSTRUCTING = new ThreadLocal<>();
+
+    private static UnnamedBlock.Builder construct(UnnamedBlock.Builder builder) {
+        CONSTRUCTING.set(PropertyInteger.create("variant", 0, builder.getVariants().size() - 1));
+        return builder;
+    }
+
+    private final PropertyInteger variant;
+    private final String[] names;
+    private final boolean[] translucent;
+    private final boolean[] silkHarvest;
+    private final float[] hardness;
+    private final float[] resistance;
+    private final SoundType[] soundTypes;
+    private final ItemDropBehaviour[] itemDropBehaviours;
+    private final ExpDropBehaviour[] expDropBehaviours;
+    private final MultiDropBehaviour[] multiDropBehaviours;
+    private final DropTable[] dropTables;
+
+    VariantBlock(UnnamedBlock.Builder builder) {
+        super(construct(builder));
+        this.variant = CONSTRUCTING.get();
+        CONSTRUCTING.remove();
+
+        final int variants = builder.getVariants().size();
+        this.names = new String[variants];
+        this.translucent = new boolean[variants];
+        this.silkHarvest = new boolean[variants];
+        this.hardness = new float[variants];
+        this.resistance = new float[variants];
+        this.soundTypes = new SoundType[variants];
+        this.itemDropBehaviours = new ItemDropBehaviour[variants];
+        this.expDropBehaviours = new ExpDropBehaviour[variants];
+        this.multiDropBehaviours = new MultiDropBehaviour[variants];
+        this.dropTables = new DropTable[variants];
+
+        int i = 0;
+        for (final Map.Entry<String, UnnamedBlock.Builder> entry : builder.getVariants().entrySet()) {
+            final UnnamedBlock.Builder variant = entry.getValue();
+            this.names[i] = entry.getKey();
+            this.translucent[i] = variant.isTranslucent();
+            this.silkHarvest[i] = variant.isSilkHarvest();
+            this.hardness[i] = variant.getHardness().orElse(builder.getHardness().orElse(0.0f));
+            // as Block#setHardness(float) and Block#setResistance(float) would, stored as the explosion resistance
+            this.resistance[i] = variant.getResistance().isPresent() || builder.getResistance().isPresent()
+                    ? variant.getResistance().orElse(builder.getResistance().orElse(0.0f)) * 3.0f / 5.0f
+                    : this.hardness[i];
+            this.soundTypes[i] = variant.getSoundType().orElse(builder.getSoundType().orElse(this.blockSoundType));
+            this.itemDropBehaviours[i] = variant.getItemDropBehaviour();
+            this.expDropBehaviours[i] = variant.getExpDropBehaviour();
+            this.multiDropBehaviours[i] = variant.getMultiDropBehaviour();
+            i++;
+        }
+    }
+
+    /**
+     * Gets the property holding the variant of the block's states.
+     *
+     * @return The variant property
+     */
+    public PropertyInteger getVariantProperty() {
+        return this.variant;
+    }
+
+    /**
+     * Gets the number of variants the block has.
+     *
+     * @return The number of variants
+     */
+    public int getVariantCount() {
+        return this.names.length;
+    }
+
+    /**
+     * Gets the name of the given variant.
+     *
+     * @param variant The variant
+     * @return The name
+     */
+    public String getVariantName(int variant) {
+        return this.names[variant];
+    }
+
+    @Override
+    public int getVariant(IBlockState state) {
+        return state.getValue(this.variant);
+    }
+
+    @Override
+    protected BlockStateContainer createBlockState() {
+        return new BlockStateContainer(this, CONSTRUCTING.get());
+    }
+
+    @Override
+    public IBlockState getStateFromMeta(int meta) {
+        return this.getDefaultState().withProperty(this.variant, meta < this.names.length ? meta : 0);
+    }
+
+    @Override
+    public int getMetaFromState(IBlockState state) {
+        return state.getValue(this.variant);
+    }
+
+    @Override
+    public void getSubBlocks(Item itemIn, CreativeTabs tab, NonNullList<ItemStack> list) {
+        for (int variant = 0; variant < this.names.length; variant++) {
+            list.add(new ItemStack(itemIn, 1, variant));
+        }
+    }
+
+    @Override
+    public ItemStack getItem(World worldIn, BlockPos pos, IBlockState state) {
+        return new ItemStack(this, 1, this.getVariant(state));
+    }
+
+    @Override
+    public float getBlockHardness(IBlockState blockState, World worldIn, BlockPos pos) {
+        return this.hardness[this.getVariant(blockState)];
+    }
+
+    @Override
+    public float getExplosionResistance(World world, BlockPos pos, @Nullable Entity exploder, Explosion explosion) {
+        return this.resistance[this.getVariant(world.getBlockState(pos))];
+    }
+
+    @Override
+    public SoundType getSoundType(IBlockState state, World world, BlockPos pos, @Nullable Entity entity) {
+        return this.soundTypes[this.getVariant(state)];
+    }
+
+    @Override
+    public boolean canSilkHarvest(World world, BlockPos pos, IBlockState state, EntityPlayer player) {
+        return this.silkHarvest[this.getVariant(state)] && !this.hasTileEntity(state);
+    }
+
+    // Drops: Start
+    ///////////////
+
+    @Override
+    public void resolveDrops() {
+        super.resolveDrops();
+        for (int variant = 0; variant < this.names.length; variant++) {
+            this.dropTables[variant] = DropTable.resolve(this, this.itemDropBehaviours[variant]);
+            if (this.multiDropBehaviours[variant] != null) {
+                this.multiDropBehaviours[variant].resolve();
+            }
+        }
+    }
+
+    /**
+     * Gets the {@link DropTable} of the given variant, resolving the block's drops if
+     * they have yet to be.
+     *
+     * @param variant The variant
+     * @return The drop table
+     */
+    public DropTable getDropTable(int variant) {
+        if (this.dropTables[variant] == null) {
+            this.resolveDrops();
+        }
+        return this.dropTables[variant];
+    }
+
+    @Override
+    public Item getItemDropped(IBlockState state, Random rand, int fortune) {
+        return this.getDropTable(this.getVariant(state)).getItem();
+    }
+
+    @Override
+    public int quantityDropped(IBlockState state, int fortune, Random random) {
+        return this.getDropTable(this.getVariant(state)).getQuantityWithBonus(fortune, random);
+    }
+
+    @Override
+    public int damageDropped(IBlockState state) {
+        return this.getDropTable(this.getVariant(state)).getMeta(state);
+    }
+
+    @Override
+    public List<ItemStack> getDrops(IBlockAccess world, BlockPos pos, IBlockState state, int fortune) {
+        final MultiDropBehaviour multiDropBehaviour = this.multiDropBehaviours[this.getVariant(state)];
+        if (multiDropBehaviour == null) {
+            return super.getDrops(world, pos, state, fortune);
+        }
+
+        final List<ItemStack> drops = new ArrayList<>();
+        multiDropBehaviour.addDrops(drops, DropRandom.DEFAULT.get(world), fortune);
+        return drops;
+    }
+
+    @Override
+    public int getExpDrop(IBlockState state, IBlockAccess world, BlockPos pos, int fortune) {
+        this.setExpFortune(fortune);
+        return this.expDropBehaviours[this.getVariant(state)].getQuantityDropped(state, world, pos, fortune);
+    }
+
+    // Drops: End
+    /////////////
+
+    // Translucent: Start
+    /////////////////////
+
+    @Override
+    public boolean canRenderInLayer(IBlockState state, BlockRenderLayer layer) {
+        return layer == (this.translucent[this.getVariant(state)] ? BlockRenderLayer.TRANSLUCENT : BlockRenderLayer.SOLID);
+    }
+
+    @Override
+    public boolean isFullCube(IBlockState state) {
+        return !this.translucent[this.getVariant(state)];
+    }
+
+    @Override
+    public boolean isFullBlock(IBlockState state) {
+        return !this.translucent[this.getVariant(state)];
+    }
+
+    @Override
+    public boolean isOpaqueCube(IBlockState state) {
+        // Block's constructor asks, before the variants are set
+        if (this.translucent == null) {
+            return super.isOpaqueCube(state);
+        }
+        return !this.translucent[this.getVariant(state)];
+    }
+
+    @Override
+    public int getLightOpacity(IBlockState state) {
+        return this.translucent[this.getVariant(state)] ? 0 : 255;
+    }
+
+    @SideOnly(Side.CLIENT)
+    @Override
+    public boolean shouldSideBeRendered(IBlockState blockState, IBlockAccess blockAccess, BlockPos pos, EnumFacing side) {
+        if (this.translucent[this.getVariant(blockState)]) {
+            return FaceCulling.shouldTranslucentSideBeRendered(this.getCullingTable(), blockState, blockAccess, pos, side);
+        } else {
+            return FaceCulling.shouldSideBeRendered(blockState, blockAccess, pos, side);
+        }
+    }
+
+    // Translucent: End
+    ///////////////////
+
+}
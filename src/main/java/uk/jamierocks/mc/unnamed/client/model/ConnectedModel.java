@@ -0,0 +1,237 @@
+/*
+ * This file is part of unnamed, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2017, Jamie Mansfield <https://www.jamierocks.uk/>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package uk.jamierocks.mc.unnamed.client.model;
+
+import com.google.common.collect.ImmutableList;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.client.renderer.block.model.BakedQuad;
+import net.minecraft.client.renderer.block.model.BlockFaceUV;
+import net.minecraft.client.renderer.block.model.BlockPartFace;
+import net.minecraft.client.renderer.block.model.FaceBakery;
+import net.minecraft.client.renderer.block.model.IBakedModel;
+import net.minecraft.client.renderer.block.model.ItemCameraTransforms;
+import net.minecraft.client.renderer.block.model.ItemOverrideList;
+import net.minecraft.client.renderer.block.model.ModelRotation;
+import net.minecraft.client.renderer.texture.TextureAtlasSprite;
+import net.minecraft.util.EnumFacing;
+import net.minecraftforge.common.property.IExtendedBlockState;
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
+import org.lwjgl.util.vector.Vector3f;
+import uk.jamierocks.mc.unnamed.block.ConnectedBlock;
+
+import java.util.Collections;
+import java.util.List;
+
+import javax.annotation.Nullable;
+
+/**
+ * The baked model of a {@link ConnectedBlock}, with the quads of every side for
+ * every mask of {@link ConnectedBlock#CONNECTIONS connections} baked up front.
+ *
+ * Each side is baked as four quarters, each textured by whether the block connects
+ * on the two edges the quarter touches: with the block's own texture, its texture
+ * connected horizontally or vertically (without the borders on those edges), or
+ * its texture connected both ways.
+ */
+@SideOnly(Side.CLIENT)
+public final class ConnectedModel implements IBakedModel {
+
+    private static final FaceBakery FACE_BAKERY = new FaceBakery();
+    private static final int SIDES = EnumFacing.VALUES.length;
+
+    /**
+     * Bakes a connected model for the given textures.
+     *
+     * @param model The model being replaced, of the block unconnected
+     * @param sprite The block's texture
+     * @param horizontal The block's texture, connected horizontally
+     * @param vertical The block's texture, connected vertically
+     * @param connected The block's texture, connected both ways
+     * @return The connected model
+     */
+    public static ConnectedModel bake(IBakedModel model, TextureAtlasSprite sprite, TextureAtlasSprite horizontal,
+            TextureAtlasSprite vertical, TextureAtlasSprite connected) {
+        final TextureAtlasSprite[] sprites = { sprite, horizontal, vertical, connected };
+
+        @SuppressWarnings("unchecked")
+        final List<BakedQuad>[] quads = new List[ConnectedBlock.MASKS * SIDES];
+        for (final EnumFacing side : EnumFacing.VALUES) {
+            // a side only depends on the four edges it has, so is baked at most 16 times
+            @SuppressWarnings("unchecked")
+            final List<BakedQuad>[] baked = new List[1 << 4];
+            for (int mask = 0; mask < ConnectedBlock.MASKS; mask++) {
+                final int edges = getEdges(side, mask);
+                if (baked[edges] == null) {
+                    baked[edges] = bakeSide(side, mask, sprites);
+                }
+                quads[mask * SIDES + side.getIndex()] = baked[edges];
+            }
+        }
+        return new ConnectedModel(model, quads);
+    }
+
+    private final IBakedModel model;
+    private final List<BakedQuad>[] quads;
+
+    private ConnectedModel(IBakedModel model, List<BakedQuad>[] quads) {
+        this.model = model;
+        this.quads = quads;
+    }
+
+    @Override
+    public List<BakedQuad> getQuads(@Nullable IBlockState state, @Nullable EnumFacing side, long rand) {
+        if (side == null) {
+            return Collections.emptyList();
+        }
+
+        int mask = 0;
+        if (state instanceof IExtendedBlockState) {
+            final Integer connections = ((IExtendedBlockState) state).getValue(ConnectedBlock.CONNECTIONS);
+            if (connections != null) {
+                mask = connections;
+            }
+        }
+        return this.quads[mask * SIDES + side.getIndex()];
+    }
+
+    @Override
+    public boolean isAmbientOcclusion() {
+        return this.model.isAmbientOcclusion();
+    }
+
+    @Override
+    public boolean isGui3d() {
+        return this.model.isGui3d();
+    }
+
+    @Override
+    public boolean isBuiltInRenderer() {
+        return false;
+    }
+
+    @Override
+    public TextureAtlasSprite getParticleTexture() {
+        return this.model.getParticleTexture();
+    }
+
+    @SuppressWarnings("deprecation")
+    @Override
+    public ItemCameraTransforms getItemCameraTransforms() {
+        return this.model.getItemCameraTransforms();
+    }
+
+    @Override
+    public ItemOverrideList getOverrides() {
+        return this.model.getOverrides();
+    }
+
+    private static List<BakedQuad> bakeSide(EnumFacing side, int mask, TextureAtlasSprite[] sprites) {
+        final EnumFacing.Axis u = getAxisU(side);
+        final EnumFacing.Axis v = getAxisV(side);
+        final float depth = side.getAxisDirection() == EnumFacing.AxisDirection.POSITIVE ? 16.0f : 0.0f;
+
+        final ImmutableList.Builder<BakedQuad> quads = ImmutableList.builder();
+        for (int quarterU = 0; quarterU < 2; quarterU++) {
+            for (int quarterV = 0; quarterV < 2; quarterV++) {
+                final boolean connectedU = isConnected(mask, u, quarterU);
+                final boolean connectedV = isConnected(mask, v, quarterV);
+                final TextureAtlasSprite sprite = sprites[(connectedU ? 1 : 0) | (connectedV ? 2 : 0)];
+
+                final Vector3f from = new Vector3f(depth, depth, depth);
+                final Vector3f to = new Vector3f(depth, depth, depth);
+                set(from, u, quarterU * 8.0f);
+                set(to, u, quarterU * 8.0f + 8.0f);
+                set(from, v, quarterV * 8.0f);
+                set(to, v, quarterV * 8.0f + 8.0f);
+
+                final BlockPartFace face = new BlockPartFace(side, -1, "", new BlockFaceUV(getUvs(side, from, to), 0));
+                quads.add(FACE_BAKERY.makeBakedQuad(from, to, face, sprite, side, ModelRotation.X0_Y0, null, false, true));
+            }
+        }
+        return quads.build();
+    }
+
+    // the four edges of a side - the sides of its texture's horizontal, then vertical, axis
+    private static int getEdges(EnumFacing side, int mask) {
+        final EnumFacing.Axis u = getAxisU(side);
+        final EnumFacing.Axis v = getAxisV(side);
+        return (isConnected(mask, u, 0) ? 1 : 0)
+                | (isConnected(mask, u, 1) ? 2 : 0)
+                | (isConnected(mask, v, 0) ? 4 : 0)
+                | (isConnected(mask, v, 1) ? 8 : 0);
+    }
+
+    private static boolean isConnected(int mask, EnumFacing.Axis axis, int quarter) {
+        final EnumFacing.AxisDirection direction = quarter == 0
+                ? EnumFacing.AxisDirection.NEGATIVE : EnumFacing.AxisDirection.POSITIVE;
+        return (mask & 1 << EnumFacing.getFacingFromAxis(direction, axis).getIndex()) != 0;
+    }
+
+    // the axis a side's texture runs horizontally along
+    private static EnumFacing.Axis getAxisU(EnumFacing side) {
+        return side.getAxis() == EnumFacing.Axis.X ? EnumFacing.Axis.Z : EnumFacing.Axis.X;
+    }
+
+    // the axis a side's texture runs vertically along
+    private static EnumFacing.Axis getAxisV(EnumFacing side) {
+        return side.getAxis() == EnumFacing.Axis.Y ? EnumFacing.Axis.Z : EnumFacing.Axis.Y;
+    }
+
+    private static void set(Vector3f vector, EnumFacing.Axis axis, float value) {
+        switch (axis) {
+            case X:
+                vector.setX(value);
+                break;
+            case Y:
+                vector.setY(value);
+                break;
+            case Z:
+                vector.setZ(value);
+                break;
+        }
+    }
+
+    // adapted from BlockPart#getFaceUvs(EnumFacing)
+    private static float[] getUvs(EnumFacing side, Vector3f from, Vector3f to) {
+        switch (side) {
+            case DOWN:
+                return new float[] { from.x, 16.0f - to.z, to.x, 16.0f - from.z };
+            case UP:
+                return new float[] { from.x, from.z, to.x, to.z };
+            case NORTH:
+            default:
+                return new float[] { 16.0f - to.x, 16.0f - to.y, 16.0f - from.x, 16.0f - from.y };
+            case SOUTH:
+                return new float[] { from.x, 16.0f - to.y, to.x, 16.0f - from.y };
+            case WEST:
+                return new float[] { from.z, 16.0f - to.y, to.z, 16.0f - from.y };
+            case EAST:
+                return new float[] { 16.0f - to.z, 16.0f - to.y, 16.0f - from.z, 16.0f - from.y };
+        }
+    }
+
+}
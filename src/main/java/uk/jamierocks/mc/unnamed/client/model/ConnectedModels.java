@@ -0,0 +1,93 @@
+/*
+ * This file is part of unnamed, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2017, Jamie Mansfield <https://www.jamierocks.uk/>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package uk.jamierocks.mc.unnamed.client.model;
+
+import net.minecraft.block.Block;
+import net.minecraft.client.renderer.block.model.IBakedModel;
+import net.minecraft.client.renderer.block.model.ModelResourceLocation;
+import net.minecraft.client.renderer.texture.TextureMap;
+import net.minecraft.util.ResourceLocation;
+import net.minecraftforge.client.event.ModelBakeEvent;
+import net.minecraftforge.client.event.TextureStitchEvent;
+import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import net.minecraftforge.fml.relauncher.Side;
+import net.minecraftforge.fml.relauncher.SideOnly;
+import uk.jamierocks.mc.unnamed.block.ConnectedBlock;
+
+/**
+ * Replaces the models of every {@link ConnectedBlock} with a {@link ConnectedModel}.
+ *
+ * A connected block's textures are named after the block, like
+ * {@code unnamed:blocks/hardened_glass}, with {@code _connected_horizontal},
+ * {@code _connected_vertical} and {@code _connected} variants.
+ */
+@SideOnly(Side.CLIENT)
+@Mod.EventBusSubscriber(Side.CLIENT)
+public final class ConnectedModels {
+
+    @SubscribeEvent
+    public static void onTextureStitch(TextureStitchEvent.Pre event) {
+        for (final Block block : Block.REGISTRY) {
+            if (block instanceof ConnectedBlock) {
+                event.getMap().registerSprite(getTexture(block, "_connected_horizontal"));
+                event.getMap().registerSprite(getTexture(block, "_connected_vertical"));
+                event.getMap().registerSprite(getTexture(block, "_connected"));
+            }
+        }
+    }
+
+    @SubscribeEvent
+    public static void onModelBake(ModelBakeEvent event) {
+        final TextureMap textures = event.getModelManager().getTextureMap();
+        for (final Block block : Block.REGISTRY) {
+            if (!(block instanceof ConnectedBlock)) {
+                continue;
+            }
+
+            final ModelResourceLocation location = new ModelResourceLocation(block.getRegistryName(), "normal");
+            final IBakedModel model = event.getModelRegistry().getObject(location);
+            if (model == null) {
+                continue;
+            }
+
+            event.getModelRegistry().putObject(location, ConnectedModel.bake(model,
+                    textures.getAtlasSprite(getTexture(block, "").toString()),
+                    textures.getAtlasSprite(getTexture(block, "_connected_horizontal").toString()),
+                    textures.getAtlasSprite(getTexture(block, "_connected_vertical").toString()),
+                    textures.getAtlasSprite(getTexture(block, "_connected").toString())));
+        }
+    }
+
+    private static ResourceLocation getTexture(Block block, String suffix) {
+        final ResourceLocation name = block.getRegistryName();
+        return new ResourceLocation(name.getResourceDomain(), "blocks/" + name.getResourcePath() + suffix);
+    }
+
+    private ConnectedModels() {
+    }
+
+}
@@ -27,10 +27,14 @@ package uk.jamierocks.mc.unnamed.client.proxy;
 
 import net.minecraft.client.renderer.block.model.ModelResourceLocation;
 import net.minecraft.item.Item;
+import net.minecraft.item.ItemBlock;
 import net.minecraft.util.ResourceLocation;
 import net.minecraftforge.client.model.ModelLoader;
 import net.minecraftforge.fml.relauncher.Side;
 import net.minecraftforge.fml.relauncher.SideOnly;
+import uk.jamierocks.mc.unnamed.UnnamedMod;
+import uk.jamierocks.mc.unnamed.block.VariantBlock;
+import uk.jamierocks.mc.unnamed.metrics.StartupProfiler;
 import uk.jamierocks.mc.unnamed.proxy.IProxy;
 
 /**
@@ -41,13 +45,23 @@ public final class ClientProxy implements IProxy {
 
     @Override
     public void registerItemModel(Item item, int variant) {
-        final ResourceLocation loc = Item.REGISTRY.getNameForObject(item);
-        if (loc == null) {
-            return;
-        }
+        try (final StartupProfiler.Timer ignored = UnnamedMod.startupProfiler.start("registerItemModel")) {
+            final ResourceLocation loc = Item.REGISTRY.getNameForObject(item);
+            if (loc == null) {
+                return;
+            }
+
+            // the variants of a block are modelled by their states
+            if (item instanceof ItemBlock && ((ItemBlock) item).getBlock() instanceof VariantBlock) {
+                final VariantBlock block = (VariantBlock) ((ItemBlock) item).getBlock();
+                ModelLoader.setCustomModelResourceLocation(item, variant,
+                        new ModelResourceLocation(loc, block.getVariantProperty().getName() + "=" + variant));
+                return;
+            }
 
-        if (variant == 0) {
-            ModelLoader.setCustomModelResourceLocation(item, 0, new ModelResourceLocation(loc, "inventory"));
+            if (variant == 0) {
+                ModelLoader.setCustomModelResourceLocation(item, 0, new ModelResourceLocation(loc, "inventory"));
+            }
         }
     }
 
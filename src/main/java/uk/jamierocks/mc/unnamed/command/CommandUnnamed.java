@@ -0,0 +1,144 @@
+/*
+ * This file is part of unnamed, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2017, Jamie Mansfield <https://www.jamierocks.uk/>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package uk.jamierocks.mc.unnamed.command;
+
+import net.minecraft.command.CommandBase;
+import net.minecraft.command.CommandException;
+import net.minecraft.command.ICommandSender;
+import net.minecraft.command.WrongUsageException;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.text.TextComponentString;
+import uk.jamierocks.mc.unnamed.metrics.BlockDropMetrics;
+import uk.jamierocks.mc.unnamed.metrics.DimensionWorldGenMetrics;
+import uk.jamierocks.mc.unnamed.metrics.DropMetrics;
+import uk.jamierocks.mc.unnamed.metrics.WorldGenMetrics;
+import uk.jamierocks.mc.unnamed.util.Constants;
+
+import java.util.Collections;
+import java.util.List;
+
+import javax.annotation.Nullable;
+
+/**
+ * The {@code /unnamed} command, used to inspect Unnamed's metrics.
+ */
+public final class CommandUnnamed extends CommandBase {
+
+    private final WorldGenMetrics worldGenMetrics;
+    private final DropMetrics dropMetrics;
+
+    public CommandUnnamed(WorldGenMetrics worldGenMetrics, DropMetrics dropMetrics) {
+        this.worldGenMetrics = worldGenMetrics;
+        this.dropMetrics = dropMetrics;
+    }
+
+    @Override
+    public String getName() {
+        return Constants.MOD_ID;
+    }
+
+    @Override
+    public String getUsage(ICommandSender sender) {
+        return "/unnamed <worldgen|drops> [reset]";
+    }
+
+    @Override
+    public int getRequiredPermissionLevel() {
+        return 3;
+    }
+
+    @Override
+    public void execute(MinecraftServer server, ICommandSender sender, String[] args) throws CommandException {
+        if (args.length == 0) {
+            throw new WrongUsageException(this.getUsage(sender));
+        }
+
+        switch (args[0]) {
+            case "worldgen":
+                if (args.length > 1 && "reset".equals(args[1])) {
+                    this.worldGenMetrics.reset();
+                    sender.sendMessage(new TextComponentString("Reset the world generation metrics."));
+                } else {
+                    this.printWorldGen(sender);
+                }
+                break;
+            case "drops":
+                if (args.length > 1 && "reset".equals(args[1])) {
+                    this.dropMetrics.reset();
+                    sender.sendMessage(new TextComponentString("Reset the drop metrics."));
+                } else {
+                    this.printDrops(sender);
+                }
+                break;
+            default:
+                throw new WrongUsageException(this.getUsage(sender));
+        }
+    }
+
+    private void printWorldGen(ICommandSender sender) {
+        if (this.worldGenMetrics.getDimensions().isEmpty()) {
+            sender.sendMessage(new TextComponentString("No chunks have been populated."));
+            return;
+        }
+
+        for (final DimensionWorldGenMetrics metrics : this.worldGenMetrics.getDimensions()) {
+            sender.sendMessage(new TextComponentString(String.format(
+                    "DIM%d: %d chunks, mean %.1fus, p50 <%.1fus, p99 <%.1fus, max %.1fus",
+                    metrics.getDimension(), metrics.getChunksPopulated(), metrics.getMeanChunkNanos() / 1e3,
+                    metrics.getP50ChunkNanos() / 1e3, metrics.getP99ChunkNanos() / 1e3, metrics.getMaxChunkNanos() / 1e3)));
+            sender.sendMessage(new TextComponentString(String.format(
+                    "  %d blocks placed, %d/%d veins placed, %d neighbour chunks touched",
+                    metrics.getBlocksPlaced(), metrics.getVeinsPlaced(), metrics.getVeinsAttempted(),
+                    metrics.getNeighbourChunksTouched())));
+        }
+    }
+
+    private void printDrops(ICommandSender sender) {
+        for (final BlockDropMetrics metrics : this.dropMetrics.getBlocks()) {
+            sender.sendMessage(new TextComponentString(String.format("%s: %d items, %d exp",
+                    metrics.getBlock(), metrics.getTotalItems(), metrics.getTotalExp())));
+            for (int fortune = 0; fortune < BlockDropMetrics.FORTUNE_LEVELS; fortune++) {
+                if (metrics.getItems(fortune) != 0 || metrics.getExp(fortune) != 0) {
+                    sender.sendMessage(new TextComponentString(String.format("  fortune %d%s: %d items, %d exp",
+                            fortune, fortune == BlockDropMetrics.FORTUNE_LEVELS - 1 ? "+" : "", metrics.getItems(fortune),
+                            metrics.getExp(fortune))));
+                }
+            }
+        }
+    }
+
+    @Override
+    public List<String> getTabCompletions(MinecraftServer server, ICommandSender sender, String[] args, @Nullable BlockPos pos) {
+        if (args.length == 1) {
+            return getListOfStringsMatchingLastWord(args, "worldgen", "drops");
+        } else if (args.length == 2) {
+            return getListOfStringsMatchingLastWord(args, "reset");
+        }
+        return Collections.emptyList();
+    }
+
+}
@@ -0,0 +1,163 @@
+/*
+ * This file is part of unnamed, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2017, Jamie Mansfield <https://www.jamierocks.uk/>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package uk.jamierocks.mc.unnamed.config;
+
+import net.minecraftforge.common.config.ConfigCategory;
+import net.minecraftforge.common.config.Configuration;
+import uk.jamierocks.mc.unnamed.world.OreDefinition;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A final class holding the values of Unnamed's configuration file.
+ */
+public final class UnnamedConfig {
+
+    public static final String CATEGORY_WORLDGEN = "worldgen";
+    public static final String CATEGORY_ORES = CATEGORY_WORLDGEN + Configuration.CATEGORY_SPLITTER + "ores";
+    public static final String CATEGORY_DROPS = "drops";
+
+    /**
+     * The default definition of tungsten ore generation.
+     */
+    public static final OreDefinition TUNGSTEN_ORE = new OreDefinition("unnamed:tungsten_ore", 9, 2, 0, 32, new int[] { 0 });
+
+    /**
+     * Whether ore placements are planned on worker threads, ahead of population.
+     */
+    public static boolean asyncOrePlanning = false;
+
+    /**
+     * The number of worker threads used to plan ore placements.
+     */
+    public static int orePlanningThreads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+    /**
+     * Whether ore placements in chunks that aren't loaded are deferred, rather than loading the chunk.
+     */
+    public static boolean cascadeFreeOres = false;
+
+    /**
+     * Whether metrics are recorded for every chunk populated.
+     */
+    public static boolean worldGenMetrics = true;
+
+    /**
+     * The source of randomness used when planning ore veins, see {@link uk.jamierocks.mc.unnamed.world.OreRandom}.
+     */
+    public static String oreRandom = "vanilla";
+
+    /**
+     * The block states that ores may replace, see {@link uk.jamierocks.mc.unnamed.world.ReplaceableStates}.
+     */
+    public static String[] replaceableStates = { "minecraft:stone:0", "minecraft:stone:1", "minecraft:stone:3", "minecraft:stone:5" };
+
+    /**
+     * The interval, in minutes, at which the drop metrics are appended to a CSV file, or {@code 0} to never.
+     */
+    public static int dropSnapshotMinutes = 60;
+
+    /**
+     * The ores to be generated.
+     */
+    public static List<OreDefinition> ores = Collections.emptyList();
+
+    /**
+     * Loads the configuration from the given file, saving any missing values.
+     *
+     * @param file The configuration file
+     */
+    public static void load(File file) {
+        final Configuration config = new Configuration(file);
+        config.load();
+
+        asyncOrePlanning = config.getBoolean("asyncOrePlanning", CATEGORY_WORLDGEN, asyncOrePlanning,
+                "Plan ore placements on worker threads, ahead of chunks being populated. The generated world is unchanged.");
+        orePlanningThreads = config.getInt("orePlanningThreads", CATEGORY_WORLDGEN, orePlanningThreads, 1, 64,
+                "The number of worker threads used to plan ore placements, when asyncOrePlanning is enabled.");
+        cascadeFreeOres = config.getBoolean("cascadeFreeOres", CATEGORY_WORLDGEN, cascadeFreeOres,
+                "Defer ore placements in chunks that aren't loaded until they are populated, rather than loading them.");
+        worldGenMetrics = config.getBoolean("worldGenMetrics", CATEGORY_WORLDGEN, worldGenMetrics,
+                "Record metrics for every chunk populated, available through '/unnamed worldgen' and JMX.");
+        oreRandom = config.getString("oreRandom", CATEGORY_WORLDGEN, oreRandom,
+                "The source of randomness used when planning ore veins. 'vanilla' generates the same veins as vanilla's ore "
+                        + "generation, whereas 'xorshift' is faster but generates different veins for the same seed.",
+                new String[] { "vanilla", "xorshift" });
+        replaceableStates = config.getStringList("replaceableStates", CATEGORY_WORLDGEN, replaceableStates,
+                "The blocks that ores may replace, as modid:name, modid:name:meta or ore:name for ore dictionary entries. "
+                        + "The default is vanilla's natural stone, add entries such as 'ore:stone' for modded stones.");
+
+        dropSnapshotMinutes = config.getInt("dropSnapshotMinutes", CATEGORY_DROPS, dropSnapshotMinutes, 0, 1440,
+                "The interval, in minutes, at which the items and exp dropped by each block are appended to unnamed-drops.csv, "
+                        + "in the server directory. 0 to never, they are still available through '/unnamed drops'.");
+
+        ores = loadOres(config);
+
+        if (config.hasChanged()) {
+            config.save();
+        }
+    }
+
+    private static List<OreDefinition> loadOres(Configuration config) {
+        config.setCategoryComment(CATEGORY_ORES, "The ores to be generated, one sub-category per ore. "
+                + "Dimensions not listed by any ore are skipped entirely.");
+        if (config.getCategory(CATEGORY_ORES).getChildren().isEmpty()) {
+            // tungsten
+            loadOre(config, "tungsten", TUNGSTEN_ORE);
+        }
+
+        // sorted, so the ores are always generated in the same order
+        final List<String> names = new ArrayList<>();
+        for (final ConfigCategory category : config.getCategory(CATEGORY_ORES).getChildren()) {
+            names.add(category.getName());
+        }
+        Collections.sort(names);
+
+        final List<OreDefinition> ores = new ArrayList<>();
+        for (final String name : names) {
+            ores.add(loadOre(config, name, new OreDefinition("", 8, 1, 0, 64, new int[0])));
+        }
+        return ores;
+    }
+
+    private static OreDefinition loadOre(Configuration config, String name, OreDefinition defaults) {
+        final String category = CATEGORY_ORES + Configuration.CATEGORY_SPLITTER + name;
+        return new OreDefinition(
+                config.getString("block", category, defaults.getBlock(), "The block to generate, as modid:name or modid:name:meta."),
+                config.getInt("veinSize", category, defaults.getVeinSize(), 1, 64, "The number of blocks in each vein."),
+                config.getInt("veinCount", category, defaults.getVeinCount(), 0, 128, "The number of veins in each chunk."),
+                config.getInt("minHeight", category, defaults.getMinHeight(), 0, 255, "The minimum height of the veins."),
+                config.getInt("maxHeight", category, defaults.getMaxHeight(), 0, 255, "The maximum height of the veins."),
+                config.get(category, "dimensions", defaults.getDimensions(), "The ids of the dimensions to generate in.").getIntList());
+    }
+
+    private UnnamedConfig() {
+    }
+
+}
@@ -0,0 +1,355 @@
+/*
+ * This file is part of unnamed, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2017, Jamie Mansfield <https://www.jamierocks.uk/>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package uk.jamierocks.mc.unnamed.definition;
+
+import com.google.common.collect.ImmutableMap;
+import net.minecraft.block.SoundType;
+import net.minecraft.block.material.Material;
+import net.minecraft.item.Item;
+import net.minecraft.util.ResourceLocation;
+import uk.jamierocks.mc.unnamed.UnnamedMod;
+import uk.jamierocks.mc.unnamed.block.ExpDropBehaviour;
+import uk.jamierocks.mc.unnamed.block.ItemDropBehaviour;
+import uk.jamierocks.mc.unnamed.block.Presets;
+import uk.jamierocks.mc.unnamed.block.UnnamedBlock;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import javax.annotation.Nullable;
+
+/**
+ * A definition of a block, holding the fields of an {@link UnnamedBlock.Builder}.
+ */
+public final class BlockDefinition {
+
+    private static final Map<String, Consumer<UnnamedBlock.Builder>> PRESETS = ImmutableMap.of(
+            "ore", Presets.ORE,
+            "glass", Presets.GLASS);
+
+    private static final Map<String, Material> MATERIALS = ImmutableMap.<String, Material>builder()
+            .put("rock", Material.ROCK)
+            .put("iron", Material.IRON)
+            .put("glass", Material.GLASS)
+            .put("wood", Material.WOOD)
+            .put("ground", Material.GROUND)
+            .put("sand", Material.SAND)
+            .put("clay", Material.CLAY)
+            .put("ice", Material.ICE)
+            .put("cloth", Material.CLOTH)
+            .build();
+
+    private static final Map<String, SoundType> SOUND_TYPES = ImmutableMap.<String, SoundType>builder()
+            .put("stone", SoundType.STONE)
+            .put("metal", SoundType.METAL)
+            .put("glass", SoundType.GLASS)
+            .put("wood", SoundType.WOOD)
+            .put("ground", SoundType.GROUND)
+            .put("sand", SoundType.SAND)
+            .put("snow", SoundType.SNOW)
+            .put("cloth", SoundType.CLOTH)
+            .put("anvil", SoundType.ANVIL)
+            .build();
+
+    private final String identifier;
+    @Nullable private final String preset;
+    @Nullable private final String material;
+    @Nullable private final String soundType;
+    private final int flags;
+    private final float hardness;
+    private final float resistance;
+    @Nullable private final Drop drop;
+    @Nullable private final Exp exp;
+    private final Map<String, BlockDefinition> variants;
+
+    /**
+     * Creates a block definition.
+     *
+     * @param identifier The identifier
+     * @param preset The name of the preset, or {@code null}
+     * @param material The name of the material, or {@code null}
+     * @param soundType The name of the sound type, or {@code null}
+     * @param flags The {@link Flags} set
+     * @param hardness The hardness, or {@code NaN} if unset
+     * @param resistance The resistance, or {@code NaN} if unset
+     * @param drop The item drop, or {@code null}
+     * @param exp The exp drop, or {@code null}
+     * @param variants The variants, by name
+     */
+    public BlockDefinition(String identifier, @Nullable String preset, @Nullable String material, @Nullable String soundType,
+            int flags, float hardness, float resistance, @Nullable Drop drop, @Nullable Exp exp, Map<String, BlockDefinition> variants) {
+        this.identifier = identifier;
+        this.preset = preset;
+        this.material = material;
+        this.soundType = soundType;
+        this.flags = flags;
+        this.hardness = hardness;
+        this.resistance = resistance;
+        this.drop = drop;
+        this.exp = exp;
+        this.variants = Collections.unmodifiableMap(new LinkedHashMap<>(variants));
+    }
+
+    public String getIdentifier() {
+        return this.identifier;
+    }
+
+    @Nullable
+    public String getPreset() {
+        return this.preset;
+    }
+
+    @Nullable
+    public String getMaterial() {
+        return this.material;
+    }
+
+    @Nullable
+    public String getSoundType() {
+        return this.soundType;
+    }
+
+    public int getFlags() {
+        return this.flags;
+    }
+
+    public float getHardness() {
+        return this.hardness;
+    }
+
+    public float getResistance() {
+        return this.resistance;
+    }
+
+    @Nullable
+    public Drop getDrop() {
+        return this.drop;
+    }
+
+    @Nullable
+    public Exp getExp() {
+        return this.exp;
+    }
+
+    public Map<String, BlockDefinition> getVariants() {
+        return this.variants;
+    }
+
+    /**
+     * Creates a block builder from the definition.
+     *
+     * @return The block builder
+     */
+    public UnnamedBlock.Builder toBuilder() {
+        final UnnamedBlock.Builder builder = UnnamedBlock.builder();
+        if (this.preset != null) {
+            builder.preset(lookup(PRESETS, "preset", this.preset));
+        }
+        builder.identifier(this.identifier);
+        if (this.material != null) {
+            builder.material(lookup(MATERIALS, "material", this.material));
+        }
+        if (this.soundType != null) {
+            builder.soundType(lookup(SOUND_TYPES, "sound type", this.soundType));
+        }
+        if ((this.flags & Flags.CREATIVE_TAB) != 0) {
+            builder.creativeTab(UnnamedMod.creativeTab);
+        }
+        if ((this.flags & Flags.TRANSLUCENT) != 0) {
+            builder.translucent();
+        }
+        if ((this.flags & Flags.SILK_HARVEST) != 0) {
+            builder.silkHarvest();
+        }
+        if ((this.flags & Flags.COALESCE_DROPS) != 0) {
+            builder.coalesceDrops();
+        }
+        if ((this.flags & Flags.SPECIALIZE) != 0) {
+            builder.specialize();
+        }
+        if ((this.flags & Flags.CONNECTED_TEXTURES) != 0) {
+            builder.connectedTextures();
+        }
+        if (!Float.isNaN(this.hardness)) {
+            builder.hardness(this.hardness);
+        }
+        if (!Float.isNaN(this.resistance)) {
+            builder.resistance(this.resistance);
+        }
+        if (this.drop != null) {
+            builder.drop(this.drop.toBehaviour());
+        }
+        if (this.exp != null) {
+            builder.drop(ExpDropBehaviour.of(this.exp.getMinimum(), this.exp.getMaximum()));
+        }
+        for (final Map.Entry<String, BlockDefinition> variant : this.variants.entrySet()) {
+            builder.variant(variant.getKey(), variant.getValue().toBuilder());
+        }
+        return builder;
+    }
+
+    private static <T> T lookup(Map<String, T> values, String kind, String name) {
+        final T value = values.get(name);
+        if (value == null) {
+            throw new IllegalArgumentException("Unknown " + kind + " " + name + "!");
+        }
+        return value;
+    }
+
+    /**
+     * The flags of a block definition, for the builder's switches.
+     */
+    public static final class Flags {
+
+        public static final int CREATIVE_TAB = 1;
+        public static final int TRANSLUCENT = 1 << 1;
+        public static final int SILK_HARVEST = 1 << 2;
+        public static final int COALESCE_DROPS = 1 << 3;
+        public static final int SPECIALIZE = 1 << 4;
+        public static final int CONNECTED_TEXTURES = 1 << 5;
+
+        private Flags() {
+        }
+
+    }
+
+    /**
+     * The item drop of a block definition.
+     */
+    public static final class Drop {
+
+        /**
+         * No fortune is applied.
+         */
+        public static final int FORTUNE_NONE = 0;
+
+        /**
+         * Fortune is applied, as {@link ItemDropBehaviour.Fortune#of(Supplier, int, int)}.
+         */
+        public static final int FORTUNE = 1;
+
+        /**
+         * Fortune is applied, as {@link ItemDropBehaviour.Fortune#tabulated(Supplier, int, int)}.
+         */
+        public static final int FORTUNE_TABULATED = 2;
+
+        @Nullable private final String item;
+        private final int minimum;
+        private final int maximum;
+        private final int fortune;
+
+        /**
+         * Creates an item drop.
+         *
+         * @param item The item to be dropped, as {@code modid:name}, or {@code null} for the block
+         * @param minimum The minimum quantity of items to drop
+         * @param maximum The maximum quantity of items to drop
+         * @param fortune How fortune is applied
+         */
+        public Drop(@Nullable String item, int minimum, int maximum, int fortune) {
+            this.item = item;
+            this.minimum = minimum;
+            this.maximum = maximum;
+            this.fortune = fortune;
+        }
+
+        @Nullable
+        public String getItem() {
+            return this.item;
+        }
+
+        public int getMinimum() {
+            return this.minimum;
+        }
+
+        public int getMaximum() {
+            return this.maximum;
+        }
+
+        public int getFortune() {
+            return this.fortune;
+        }
+
+        ItemDropBehaviour toBehaviour() {
+            if (this.item == null) {
+                switch (this.fortune) {
+                    case FORTUNE:
+                        return ItemDropBehaviour.Fortune.of(this.minimum, this.maximum);
+                    case FORTUNE_TABULATED:
+                        return ItemDropBehaviour.Fortune.tabulated(this.minimum, this.maximum);
+                    default:
+                        return ItemDropBehaviour.of(this.minimum, this.maximum);
+                }
+            }
+
+            // the item is looked up once the registries are frozen, as the drops are resolved
+            final ResourceLocation name = new ResourceLocation(this.item);
+            final Supplier<Item> drop = () -> Item.REGISTRY.getObject(name);
+            switch (this.fortune) {
+                case FORTUNE:
+                    return ItemDropBehaviour.Fortune.of(drop, this.minimum, this.maximum);
+                case FORTUNE_TABULATED:
+                    return ItemDropBehaviour.Fortune.tabulated(drop, this.minimum, this.maximum);
+                default:
+                    return ItemDropBehaviour.of(drop, this.minimum, this.maximum);
+            }
+        }
+
+    }
+
+    /**
+     * The exp drop of a block definition.
+     */
+    public static final class Exp {
+
+        private final int minimum;
+        private final int maximum;
+
+        /**
+         * Creates an exp drop.
+         *
+         * @param minimum The minimum quantity of exp to drop
+         * @param maximum The maximum quantity of exp to drop
+         */
+        public Exp(int minimum, int maximum) {
+            this.minimum = minimum;
+            this.maximum = maximum;
+        }
+
+        public int getMinimum() {
+            return this.minimum;
+        }
+
+        public int getMaximum() {
+            return this.maximum;
+        }
+
+    }
+
+}
@@ -0,0 +1,306 @@
+/*
+ * This file is part of unnamed, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2017, Jamie Mansfield <https://www.jamierocks.uk/>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package uk.jamierocks.mc.unnamed.definition;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.Nullable;
+
+/**
+ * A compact binary cache of {@link Definitions}, keyed by the hash of the sources
+ * they were read from, so that unchanged definitions aren't parsed again.
+ *
+ * The cache is memory-mapped to be read, once its header is known to match.
+ */
+final class DefinitionCache {
+
+    private static final int MAGIC = 0x554E4E44; // UNND
+    private static final int FORMAT = 1;
+
+    private static final int NULL = -1;
+
+    /**
+     * Reads the definitions cached in the given file, if they are of the given hash.
+     *
+     * @param file The cache file
+     * @param hash The hash of the sources
+     * @return The definitions, or {@code null} if the cache is missing, stale or corrupt
+     */
+    @Nullable
+    static Definitions read(File file, byte[] hash) {
+        if (!file.isFile()) {
+            return null;
+        }
+
+        // the header is read without mapping, as a stale cache is replaced - which a mapping could prevent
+        try (final DataInputStream in = new DataInputStream(new FileInputStream(file))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT) {
+                return null;
+            }
+            final byte[] cachedHash = new byte[in.readUnsignedByte()];
+            in.readFully(cachedHash);
+            if (!Arrays.equals(cachedHash, hash)) {
+                return null;
+            }
+        } catch (final IOException ex) {
+            return null;
+        }
+
+        try (final FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            final ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.position(4 + 4 + 1 + hash.length);
+            return readDefinitions(buffer);
+        } catch (final IOException | RuntimeException ex) {
+            // a corrupt cache is read again from the sources
+            return null;
+        }
+    }
+
+    /**
+     * Writes the given definitions to the cache file.
+     *
+     * @param file The cache file
+     * @param hash The hash of the sources
+     * @param definitions The definitions
+     * @throws IOException Should the cache fail to be written
+     */
+    static void write(File file, byte[] hash, Definitions definitions) throws IOException {
+        try (final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT);
+            out.writeByte(hash.length);
+            out.write(hash);
+
+            out.writeInt(definitions.getBlocks().size());
+            for (final BlockDefinition block : definitions.getBlocks()) {
+                writeBlock(out, block);
+            }
+
+            out.writeInt(definitions.getItems().size());
+            for (final String item : definitions.getItems()) {
+                writeString(out, item);
+            }
+
+            out.writeInt(definitions.getOres().size());
+            for (final Map.Entry<String, List<String>> ore : definitions.getOres().entrySet()) {
+                writeString(out, ore.getKey());
+                out.writeInt(ore.getValue().size());
+                for (final String item : ore.getValue()) {
+                    writeString(out, item);
+                }
+            }
+
+            out.writeInt(definitions.getRecipes().size());
+            for (final RecipeDefinition recipe : definitions.getRecipes()) {
+                writeRecipe(out, recipe);
+            }
+        }
+    }
+
+    private static Definitions readDefinitions(ByteBuffer buffer) {
+        final int blockCount = buffer.getInt();
+        final List<BlockDefinition> blocks = new ArrayList<>(blockCount);
+        for (int i = 0; i < blockCount; i++) {
+            blocks.add(readBlock(buffer));
+        }
+
+        final int itemCount = buffer.getInt();
+        final List<String> items = new ArrayList<>(itemCount);
+        for (int i = 0; i < itemCount; i++) {
+            items.add(readString(buffer));
+        }
+
+        final int oreCount = buffer.getInt();
+        final Map<String, List<String>> ores = new LinkedHashMap<>();
+        for (int i = 0; i < oreCount; i++) {
+            final String name = readString(buffer);
+            final int count = buffer.getInt();
+            final List<String> entries = new ArrayList<>(count);
+            for (int j = 0; j < count; j++) {
+                entries.add(readString(buffer));
+            }
+            ores.put(name, entries);
+        }
+
+        final int recipeCount = buffer.getInt();
+        final List<RecipeDefinition> recipes = new ArrayList<>(recipeCount);
+        for (int i = 0; i < recipeCount; i++) {
+            recipes.add(readRecipe(buffer));
+        }
+
+        return new Definitions(blocks, items, ores, recipes);
+    }
+
+    private static void writeBlock(DataOutputStream out, BlockDefinition block) throws IOException {
+        writeString(out, block.getIdentifier());
+        writeString(out, block.getPreset());
+        writeString(out, block.getMaterial());
+        writeString(out, block.getSoundType());
+        out.writeInt(block.getFlags());
+        out.writeFloat(block.getHardness());
+        out.writeFloat(block.getResistance());
+
+        final BlockDefinition.Drop drop = block.getDrop();
+        out.writeBoolean(drop != null);
+        if (drop != null) {
+            writeString(out, drop.getItem());
+            out.writeInt(drop.getMinimum());
+            out.writeInt(drop.getMaximum());
+            out.writeByte(drop.getFortune());
+        }
+
+        final BlockDefinition.Exp exp = block.getExp();
+        out.writeBoolean(exp != null);
+        if (exp != null) {
+            out.writeInt(exp.getMinimum());
+            out.writeInt(exp.getMaximum());
+        }
+
+        out.writeInt(block.getVariants().size());
+        for (final Map.Entry<String, BlockDefinition> variant : block.getVariants().entrySet()) {
+            writeString(out, variant.getKey());
+            writeBlock(out, variant.getValue());
+        }
+    }
+
+    private static BlockDefinition readBlock(ByteBuffer buffer) {
+        final String identifier = readString(buffer);
+        final String preset = readString(buffer);
+        final String material = readString(buffer);
+        final String soundType = readString(buffer);
+        final int flags = buffer.getInt();
+        final float hardness = buffer.getFloat();
+        final float resistance = buffer.getFloat();
+
+        BlockDefinition.Drop drop = null;
+        if (buffer.get() != 0) {
+            drop = new BlockDefinition.Drop(readString(buffer), buffer.getInt(), buffer.getInt(), buffer.get());
+        }
+
+        BlockDefinition.Exp exp = null;
+        if (buffer.get() != 0) {
+            exp = new BlockDefinition.Exp(buffer.getInt(), buffer.getInt());
+        }
+
+        final int variantCount = buffer.getInt();
+        final Map<String, BlockDefinition> variants = variantCount == 0 ? Collections.emptyMap() : new LinkedHashMap<>();
+        for (int i = 0; i < variantCount; i++) {
+            variants.put(readString(buffer), readBlock(buffer));
+        }
+
+        return new BlockDefinition(identifier, preset, material, soundType, flags, hardness, resistance, drop, exp, variants);
+    }
+
+    private static void writeRecipe(DataOutputStream out, RecipeDefinition recipe) throws IOException {
+        out.writeByte(recipe.getType().ordinal());
+        writeString(out, recipe.getOutput());
+        out.writeInt(recipe.getCount());
+
+        final String[] pattern = recipe.getPattern();
+        out.writeInt(pattern.length);
+        for (final String row : pattern) {
+            writeString(out, row);
+        }
+
+        out.writeInt(recipe.getKeys().size());
+        for (final Map.Entry<Character, String> key : recipe.getKeys().entrySet()) {
+            out.writeChar(key.getKey());
+            writeString(out, key.getValue());
+        }
+
+        writeString(out, recipe.getInput());
+        out.writeFloat(recipe.getExp());
+    }
+
+    private static RecipeDefinition readRecipe(ByteBuffer buffer) {
+        final RecipeDefinition.Type type = RecipeDefinition.Type.values()[buffer.get()];
+        final String output = readString(buffer);
+        final int count = buffer.getInt();
+
+        final String[] pattern = new String[buffer.getInt()];
+        for (int i = 0; i < pattern.length; i++) {
+            pattern[i] = readString(buffer);
+        }
+
+        final int keyCount = buffer.getInt();
+        final Map<Character, String> keys = new LinkedHashMap<>();
+        for (int i = 0; i < keyCount; i++) {
+            keys.put(buffer.getChar(), readString(buffer));
+        }
+
+        final String input = readString(buffer);
+        final float exp = buffer.getFloat();
+
+        switch (type) {
+            case SMELTING:
+                return RecipeDefinition.smelting(input, output, count, exp);
+            case SHAPED:
+            default:
+                return RecipeDefinition.shaped(output, count, pattern, keys);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, @Nullable String string) throws IOException {
+        if (string == null) {
+            out.writeInt(NULL);
+            return;
+        }
+        final byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    @Nullable
+    private static String readString(ByteBuffer buffer) {
+        final int length = buffer.getInt();
+        if (length == NULL) {
+            return null;
+        }
+        final byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private DefinitionCache() {
+    }
+
+}
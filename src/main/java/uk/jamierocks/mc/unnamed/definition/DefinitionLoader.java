@@ -0,0 +1,127 @@
+/*
+ * This file is part of unnamed, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2017, Jamie Mansfield <https://www.jamierocks.uk/>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package uk.jamierocks.mc.unnamed.definition;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.common.io.ByteStreams;
+import com.google.common.io.Files;
+import uk.jamierocks.mc.unnamed.util.Constants;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Loads Unnamed's {@link Definitions}, from those bundled with the mod and any
+ * {@code .json} files in the {@code definitions} directory of its configuration.
+ *
+ * The sources are parsed once, and then compiled into a {@link DefinitionCache},
+ * which is read instead for as long as the sources are unchanged.
+ */
+public final class DefinitionLoader {
+
+    private static final String BUNDLED = "/assets/" + Constants.MOD_ID + "/definitions.json";
+
+    /**
+     * Loads the definitions, using the cache in the given directory where possible.
+     *
+     * @param directory The configuration directory of the mod
+     * @return The definitions
+     */
+    public static Definitions load(File directory) {
+        final Map<String, byte[]> sources = readSources(new File(directory, "definitions"));
+
+        final Hasher hasher = Hashing.sha1().newHasher();
+        for (final Map.Entry<String, byte[]> source : sources.entrySet()) {
+            hasher.putString(source.getKey(), StandardCharsets.UTF_8);
+            hasher.putInt(source.getValue().length);
+            hasher.putBytes(source.getValue());
+        }
+        final byte[] hash = hasher.hash().asBytes();
+
+        final File cache = new File(directory, "definitions.cache");
+        final Definitions cached = DefinitionCache.read(cache, hash);
+        if (cached != null) {
+            return cached;
+        }
+
+        final DefinitionReader reader = new DefinitionReader();
+        for (final Map.Entry<String, byte[]> source : sources.entrySet()) {
+            try (final Reader in = new InputStreamReader(new ByteArrayInputStream(source.getValue()), StandardCharsets.UTF_8)) {
+                reader.read(in);
+            } catch (final IOException ex) {
+                throw new UncheckedIOException("Failed to read the definitions of " + source.getKey(), ex);
+            }
+        }
+        final Definitions definitions = reader.getDefinitions();
+
+        try {
+            directory.mkdirs();
+            DefinitionCache.write(cache, hash, definitions);
+        } catch (final IOException ignored) {
+            // the cache is only to save parsing, the definitions are read again next launch
+        }
+        return definitions;
+    }
+
+    // the sources, in the order they are read
+    private static Map<String, byte[]> readSources(File directory) {
+        final Map<String, byte[]> sources = new LinkedHashMap<>();
+        try (final InputStream in = DefinitionLoader.class.getResourceAsStream(BUNDLED)) {
+            if (in != null) {
+                sources.put(BUNDLED, ByteStreams.toByteArray(in));
+            }
+        } catch (final IOException ex) {
+            throw new UncheckedIOException("Failed to read the definitions of " + BUNDLED, ex);
+        }
+
+        final File[] files = directory.listFiles((dir, name) -> name.endsWith(".json"));
+        if (files != null) {
+            Arrays.sort(files);
+            for (final File file : files) {
+                try {
+                    sources.put(file.getPath(), Files.toByteArray(file));
+                } catch (final IOException ex) {
+                    throw new UncheckedIOException("Failed to read the definitions of " + file, ex);
+                }
+            }
+        }
+        return sources;
+    }
+
+    private DefinitionLoader() {
+    }
+
+}
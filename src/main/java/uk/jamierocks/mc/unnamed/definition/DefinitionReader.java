@@ -0,0 +1,355 @@
+/*
+ * This file is part of unnamed, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2017, Jamie Mansfield <https://www.jamierocks.uk/>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package uk.jamierocks.mc.unnamed.definition;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads {@link Definitions} from JSON, a token at a time, without building a tree.
+ *
+ * <pre>
+ * {
+ *   "blocks": [
+ *     { "identifier": "tungsten_ore", "preset": "ore",
+ *       "drop": { "item": "unnamed:tungsten", "min": 1, "max": 3, "fortune": "tabulated" },
+ *       "exp": { "min": 2, "max": 5 } }
+ *   ],
+ *   "items": [ "tungsten" ],
+ *   "ores": { "oreTungsten": "unnamed:tungsten_ore" },
+ *   "recipes": [
+ *     { "type": "shaped", "output": "unnamed:tungsten_block", "pattern": [ "tt", "tt" ],
+ *       "keys": { "t": "unnamed:tungsten" } },
+ *     { "type": "smelting", "input": "unnamed:tungsten", "output": "unnamed:tungsten_carbide", "count": 3, "exp": 2 }
+ *   ]
+ * }
+ * </pre>
+ *
+ * Any number of sources may be read, with their definitions combined in order.
+ */
+final class DefinitionReader {
+
+    private final List<BlockDefinition> blocks = new ArrayList<>();
+    private final List<String> items = new ArrayList<>();
+    private final Map<String, List<String>> ores = new LinkedHashMap<>();
+    private final List<RecipeDefinition> recipes = new ArrayList<>();
+
+    /**
+     * Reads the definitions of the given source.
+     *
+     * @param source The source
+     * @throws IOException Should the source not be valid definitions
+     */
+    void read(Reader source) throws IOException {
+        final JsonReader reader = new JsonReader(source);
+        reader.beginObject();
+        while (reader.hasNext()) {
+            final String name = reader.nextName();
+            switch (name) {
+                case "blocks":
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        this.blocks.add(readBlock(reader, null));
+                    }
+                    reader.endArray();
+                    break;
+                case "items":
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        this.items.add(reader.nextString());
+                    }
+                    reader.endArray();
+                    break;
+                case "ores":
+                    reader.beginObject();
+                    while (reader.hasNext()) {
+                        this.ores.computeIfAbsent(reader.nextName(), ore -> new ArrayList<>()).addAll(readStrings(reader));
+                    }
+                    reader.endObject();
+                    break;
+                case "recipes":
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        this.recipes.add(readRecipe(reader));
+                    }
+                    reader.endArray();
+                    break;
+                default:
+                    throw unknown(reader, "definition", name);
+            }
+        }
+        reader.endObject();
+    }
+
+    /**
+     * Gets the definitions read.
+     *
+     * @return The definitions
+     */
+    Definitions getDefinitions() {
+        return new Definitions(this.blocks, this.items, this.ores, this.recipes);
+    }
+
+    private static BlockDefinition readBlock(JsonReader reader, String variant) throws IOException {
+        String identifier = variant;
+        String preset = null;
+        String material = null;
+        String soundType = null;
+        int flags = 0;
+        float hardness = Float.NaN;
+        float resistance = Float.NaN;
+        BlockDefinition.Drop drop = null;
+        BlockDefinition.Exp exp = null;
+        Map<String, BlockDefinition> variants = Collections.emptyMap();
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            final String name = reader.nextName();
+            switch (name) {
+                case "identifier":
+                    identifier = reader.nextString();
+                    break;
+                case "preset":
+                    preset = reader.nextString();
+                    break;
+                case "material":
+                    material = reader.nextString();
+                    break;
+                case "soundType":
+                    soundType = reader.nextString();
+                    break;
+                case "creativeTab":
+                    flags |= reader.nextBoolean() ? BlockDefinition.Flags.CREATIVE_TAB : 0;
+                    break;
+                case "translucent":
+                    flags |= reader.nextBoolean() ? BlockDefinition.Flags.TRANSLUCENT : 0;
+                    break;
+                case "silkHarvest":
+                    flags |= reader.nextBoolean() ? BlockDefinition.Flags.SILK_HARVEST : 0;
+                    break;
+                case "coalesceDrops":
+                    flags |= reader.nextBoolean() ? BlockDefinition.Flags.COALESCE_DROPS : 0;
+                    break;
+                case "specialize":
+                    flags |= reader.nextBoolean() ? BlockDefinition.Flags.SPECIALIZE : 0;
+                    break;
+                case "connectedTextures":
+                    flags |= reader.nextBoolean() ? BlockDefinition.Flags.CONNECTED_TEXTURES : 0;
+                    break;
+                case "hardness":
+                    hardness = (float) reader.nextDouble();
+                    break;
+                case "resistance":
+                    resistance = (float) reader.nextDouble();
+                    break;
+                case "drop":
+                    drop = readDrop(reader);
+                    break;
+                case "exp":
+                    exp = readExp(reader);
+                    break;
+                case "variants":
+                    variants = new LinkedHashMap<>();
+                    reader.beginObject();
+                    while (reader.hasNext()) {
+                        final String variantName = reader.nextName();
+                        variants.put(variantName, readBlock(reader, variantName));
+                    }
+                    reader.endObject();
+                    break;
+                default:
+                    throw unknown(reader, "block", name);
+            }
+        }
+        reader.endObject();
+
+        if (identifier == null) {
+            throw new IOException("A block must have an identifier, " + reader);
+        }
+        return new BlockDefinition(identifier, preset, material, soundType, flags, hardness, resistance, drop, exp, variants);
+    }
+
+    private static BlockDefinition.Drop readDrop(JsonReader reader) throws IOException {
+        String item = null;
+        int minimum = 1;
+        int maximum = 1;
+        int fortune = BlockDefinition.Drop.FORTUNE_NONE;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            final String name = reader.nextName();
+            switch (name) {
+                case "item":
+                    item = reader.nextString();
+                    break;
+                case "quantity":
+                    minimum = maximum = reader.nextInt();
+                    break;
+                case "min":
+                    minimum = reader.nextInt();
+                    break;
+                case "max":
+                    maximum = reader.nextInt();
+                    break;
+                case "fortune":
+                    final String mode = reader.nextString();
+                    switch (mode) {
+                        case "none":
+                            fortune = BlockDefinition.Drop.FORTUNE_NONE;
+                            break;
+                        case "bonus":
+                            fortune = BlockDefinition.Drop.FORTUNE;
+                            break;
+                        case "tabulated":
+                            fortune = BlockDefinition.Drop.FORTUNE_TABULATED;
+                            break;
+                        default:
+                            throw unknown(reader, "fortune", mode);
+                    }
+                    break;
+                default:
+                    throw unknown(reader, "drop", name);
+            }
+        }
+        reader.endObject();
+        return new BlockDefinition.Drop(item, minimum, maximum, fortune);
+    }
+
+    private static BlockDefinition.Exp readExp(JsonReader reader) throws IOException {
+        int minimum = 0;
+        int maximum = 0;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            final String name = reader.nextName();
+            switch (name) {
+                case "quantity":
+                    minimum = maximum = reader.nextInt();
+                    break;
+                case "min":
+                    minimum = reader.nextInt();
+                    break;
+                case "max":
+                    maximum = reader.nextInt();
+                    break;
+                default:
+                    throw unknown(reader, "exp", name);
+            }
+        }
+        reader.endObject();
+        return new BlockDefinition.Exp(minimum, maximum);
+    }
+
+    private static RecipeDefinition readRecipe(JsonReader reader) throws IOException {
+        String type = null;
+        String input = null;
+        String output = null;
+        int count = 1;
+        float exp = 0.0f;
+        List<String> pattern = Collections.emptyList();
+        final Map<Character, String> keys = new LinkedHashMap<>();
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            final String name = reader.nextName();
+            switch (name) {
+                case "type":
+                    type = reader.nextString();
+                    break;
+                case "input":
+                    input = reader.nextString();
+                    break;
+                case "output":
+                    output = reader.nextString();
+                    break;
+                case "count":
+                    count = reader.nextInt();
+                    break;
+                case "exp":
+                    exp = (float) reader.nextDouble();
+                    break;
+                case "pattern":
+                    pattern = readStrings(reader);
+                    break;
+                case "keys":
+                    reader.beginObject();
+                    while (reader.hasNext()) {
+                        final String key = reader.nextName();
+                        if (key.length() != 1) {
+                            throw new IOException("A recipe key must be a single character, not " + key + ", " + reader);
+                        }
+                        keys.put(key.charAt(0), reader.nextString());
+                    }
+                    reader.endObject();
+                    break;
+                default:
+                    throw unknown(reader, "recipe", name);
+            }
+        }
+        reader.endObject();
+
+        if (output == null) {
+            throw new IOException("A recipe must have an output, " + reader);
+        }
+        if ("shaped".equals(type)) {
+            return RecipeDefinition.shaped(output, count, pattern.toArray(new String[pattern.size()]), keys);
+        } else if ("smelting".equals(type)) {
+            if (input == null) {
+                throw new IOException("A smelting recipe must have an input, " + reader);
+            }
+            return RecipeDefinition.smelting(input, output, count, exp);
+        }
+        throw unknown(reader, "recipe type", String.valueOf(type));
+    }
+
+    // a single string, or an array of them
+    private static List<String> readStrings(JsonReader reader) throws IOException {
+        if (reader.peek() == JsonToken.STRING) {
+            return Collections.singletonList(reader.nextString());
+        }
+
+        final List<String> strings = new ArrayList<>();
+        reader.beginArray();
+        while (reader.hasNext()) {
+            strings.add(reader.nextString());
+        }
+        reader.endArray();
+        return strings;
+    }
+
+    private static IOException unknown(JsonReader reader, String kind, String name) {
+        return new IOException("Unknown " + kind + " " + name + ", " + reader);
+    }
+
+}
@@ -0,0 +1,76 @@
+/*
+ * This file is part of unnamed, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2017, Jamie Mansfield <https://www.jamierocks.uk/>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package uk.jamierocks.mc.unnamed.definition;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The blocks, items, ore dictionary entries and recipes defined for Unnamed,
+ * loaded by {@link DefinitionLoader}.
+ */
+public final class Definitions {
+
+    private final List<BlockDefinition> blocks;
+    private final List<String> items;
+    private final Map<String, List<String>> ores;
+    private final List<RecipeDefinition> recipes;
+
+    /**
+     * Creates a set of definitions.
+     *
+     * @param blocks The blocks
+     * @param items The identifiers of the items
+     * @param ores The items registered to each ore dictionary name, as {@code modid:name} or {@code modid:name:meta}
+     * @param recipes The recipes
+     */
+    public Definitions(List<BlockDefinition> blocks, List<String> items, Map<String, List<String>> ores,
+            List<RecipeDefinition> recipes) {
+        this.blocks = Collections.unmodifiableList(blocks);
+        this.items = Collections.unmodifiableList(items);
+        this.ores = Collections.unmodifiableMap(new LinkedHashMap<>(ores));
+        this.recipes = Collections.unmodifiableList(recipes);
+    }
+
+    public List<BlockDefinition> getBlocks() {
+        return this.blocks;
+    }
+
+    public List<String> getItems() {
+        return this.items;
+    }
+
+    public Map<String, List<String>> getOres() {
+        return this.ores;
+    }
+
+    public List<RecipeDefinition> getRecipes() {
+        return this.recipes;
+    }
+
+}
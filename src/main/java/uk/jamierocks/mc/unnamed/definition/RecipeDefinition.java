@@ -0,0 +1,132 @@
+/*
+ * This file is part of unnamed, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2017, Jamie Mansfield <https://www.jamierocks.uk/>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package uk.jamierocks.mc.unnamed.definition;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.annotation.Nullable;
+
+/**
+ * A definition of a recipe, either shaped crafting or smelting.
+ *
+ * Items are given as {@code modid:name} or {@code modid:name:meta}, and the keys of a
+ * shaped recipe may also be an ore dictionary name, as {@code ore:name}.
+ */
+public final class RecipeDefinition {
+
+    /**
+     * The prefix of a key matching an ore dictionary name.
+     */
+    public static final String ORE_PREFIX = "ore:";
+
+    /**
+     * Creates a shaped crafting recipe.
+     *
+     * @param output The item crafted
+     * @param count The quantity crafted
+     * @param pattern The pattern, by row
+     * @param keys The items of the pattern, by character
+     * @return The recipe definition
+     */
+    public static RecipeDefinition shaped(String output, int count, String[] pattern, Map<Character, String> keys) {
+        return new RecipeDefinition(Type.SHAPED, output, count, pattern, keys, null, 0.0f);
+    }
+
+    /**
+     * Creates a smelting recipe.
+     *
+     * @param input The item smelted
+     * @param output The item produced
+     * @param count The quantity produced
+     * @param exp The exp given for the smelting
+     * @return The recipe definition
+     */
+    public static RecipeDefinition smelting(String input, String output, int count, float exp) {
+        return new RecipeDefinition(Type.SMELTING, output, count, new String[0], Collections.emptyMap(), input, exp);
+    }
+
+    private final Type type;
+    private final String output;
+    private final int count;
+    private final String[] pattern;
+    private final Map<Character, String> keys;
+    @Nullable private final String input;
+    private final float exp;
+
+    private RecipeDefinition(Type type, String output, int count, String[] pattern, Map<Character, String> keys,
+            @Nullable String input, float exp) {
+        this.type = type;
+        this.output = output;
+        this.count = count;
+        this.pattern = pattern.clone();
+        this.keys = Collections.unmodifiableMap(new LinkedHashMap<>(keys));
+        this.input = input;
+        this.exp = exp;
+    }
+
+    public Type getType() {
+        return this.type;
+    }
+
+    public String getOutput() {
+        return this.output;
+    }
+
+    public int getCount() {
+        return this.count;
+    }
+
+    public String[] getPattern() {
+        return this.pattern.clone();
+    }
+
+    public Map<Character, String> getKeys() {
+        return this.keys;
+    }
+
+    @Nullable
+    public String getInput() {
+        return this.input;
+    }
+
+    public float getExp() {
+        return this.exp;
+    }
+
+    /**
+     * The types of recipe.
+     */
+    public enum Type {
+
+        SHAPED,
+        SMELTING,
+        ;
+
+    }
+
+}
@@ -25,21 +25,18 @@
 
 package uk.jamierocks.mc.unnamed.init;
 
-import net.minecraftforge.fml.common.registry.GameRegistry;
-import uk.jamierocks.mc.unnamed.item.UnnamedItem;
-import uk.jamierocks.mc.unnamed.util.Constants;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
 
 /**
- * A final class containing all of the various items in Unnamed.
+ * Marks the package that the holders of Unnamed's content are generated into, by the
+ * annotation processor of the {@code processor} project.
+ *
+ * @see UnnamedContent
  */
-@GameRegistry.ObjectHolder(Constants.MOD_ID)
-public final class UnnamedItems {
-
-    // tungsten
-    public static final UnnamedItem tungsten = null;
-    public static final UnnamedItem tungsten_carbide = null;
-
-    private UnnamedItems() {
-    }
-
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.PACKAGE)
+public @interface GenerateHolders {
 }
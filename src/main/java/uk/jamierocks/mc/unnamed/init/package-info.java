@@ -23,26 +23,9 @@
  *
  */
 
-package uk.jamierocks.mc.unnamed.init;
-
-import net.minecraftforge.fml.common.registry.GameRegistry;
-import uk.jamierocks.mc.unnamed.block.UnnamedBlock;
-import uk.jamierocks.mc.unnamed.util.Constants;
-
 /**
- * A final class containing all of the various blocks in Unnamed.
+ * The holders of Unnamed's blocks and items, {@link UnnamedBlocks} and {@link UnnamedItems},
+ * generated from the definitions bundled with the mod.
  */
-@GameRegistry.ObjectHolder(Constants.MOD_ID)
-public final class UnnamedBlocks {
-
-    // tungsten
-    public static final UnnamedBlock tungsten_ore = null;
-    public static final UnnamedBlock tungsten_block = null;
-
-    // hardened stuff
-    public static final UnnamedBlock hardened_glass = null;
-
-    private UnnamedBlocks() {
-    }
-
-}
+@GenerateHolders
+package uk.jamierocks.mc.unnamed.init;
@@ -0,0 +1,148 @@
+/*
+ * This file is part of unnamed, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2017, Jamie Mansfield <https://www.jamierocks.uk/>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package uk.jamierocks.mc.unnamed.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The drop metrics of a single block, kept per fortune level.
+ *
+ * Counters are striped, so recording from the server thread - or any other - costs
+ * little more than a plain increment.
+ */
+public final class BlockDropMetrics {
+
+    /**
+     * The number of fortune levels counted separately, the last of which counts that
+     * level and every level above it.
+     */
+    public static final int FORTUNE_LEVELS = 4;
+
+    private final String block;
+    private final LongAdder[] items = new LongAdder[FORTUNE_LEVELS];
+    private final LongAdder[] exp = new LongAdder[FORTUNE_LEVELS];
+
+    BlockDropMetrics(String block) {
+        this.block = block;
+        for (int i = 0; i < FORTUNE_LEVELS; i++) {
+            this.items[i] = new LongAdder();
+            this.exp[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Records items dropped by the block.
+     *
+     * @param fortune The fortune
+     * @param quantity The quantity of items dropped
+     */
+    public void recordItems(int fortune, int quantity) {
+        if (quantity > 0) {
+            this.items[level(fortune)].add(quantity);
+        }
+    }
+
+    /**
+     * Records exp dropped by the block.
+     *
+     * @param fortune The fortune
+     * @param quantity The quantity of exp dropped
+     */
+    public void recordExp(int fortune, int quantity) {
+        if (quantity > 0) {
+            this.exp[level(fortune)].add(quantity);
+        }
+    }
+
+    /**
+     * Gets the registry name of the block.
+     *
+     * @return The registry name
+     */
+    public String getBlock() {
+        return this.block;
+    }
+
+    /**
+     * Gets the quantity of items dropped by the block at the given fortune, which for
+     * the last level includes every level above it.
+     *
+     * @param fortune The fortune
+     * @return The quantity of items dropped
+     */
+    public long getItems(int fortune) {
+        return this.items[level(fortune)].sum();
+    }
+
+    /**
+     * Gets the quantity of exp dropped by the block at the given fortune, which for
+     * the last level includes every level above it.
+     *
+     * @param fortune The fortune
+     * @return The quantity of exp dropped
+     */
+    public long getExp(int fortune) {
+        return this.exp[level(fortune)].sum();
+    }
+
+    /**
+     * Gets the quantity of items dropped by the block, at any fortune.
+     *
+     * @return The quantity of items dropped
+     */
+    public long getTotalItems() {
+        long total = 0;
+        for (final LongAdder items : this.items) {
+            total += items.sum();
+        }
+        return total;
+    }
+
+    /**
+     * Gets the quantity of exp dropped by the block, at any fortune.
+     *
+     * @return The quantity of exp dropped
+     */
+    public long getTotalExp() {
+        long total = 0;
+        for (final LongAdder exp : this.exp) {
+            total += exp.sum();
+        }
+        return total;
+    }
+
+    void reset() {
+        for (int i = 0; i < FORTUNE_LEVELS; i++) {
+            this.items[i].reset();
+            this.exp[i].reset();
+        }
+    }
+
+    private static int level(int fortune) {
+        return Math.min(Math.max(fortune, 0), FORTUNE_LEVELS - 1);
+    }
+
+}
@@ -0,0 +1,126 @@
+/*
+ * This file is part of unnamed, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2017, Jamie Mansfield <https://www.jamierocks.uk/>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package uk.jamierocks.mc.unnamed.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The world generation metrics of a single dimension.
+ */
+public final class DimensionWorldGenMetrics implements DimensionWorldGenMetricsMBean {
+
+    private final int dimension;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder blocksPlaced = new LongAdder();
+    private final LongAdder veinsAttempted = new LongAdder();
+    private final LongAdder veinsPlaced = new LongAdder();
+    private final LongAdder neighbourChunksTouched = new LongAdder();
+
+    DimensionWorldGenMetrics(int dimension) {
+        this.dimension = dimension;
+    }
+
+    void record(long nanos, int blocksPlaced, int veinsAttempted, int veinsPlaced, int neighbourChunksTouched) {
+        this.latency.record(nanos);
+        this.blocksPlaced.add(blocksPlaced);
+        this.veinsAttempted.add(veinsAttempted);
+        this.veinsPlaced.add(veinsPlaced);
+        this.neighbourChunksTouched.add(neighbourChunksTouched);
+    }
+
+    /**
+     * Gets the id of the dimension.
+     *
+     * @return The dimension id
+     */
+    public int getDimension() {
+        return this.dimension;
+    }
+
+    /**
+     * Gets the histogram of the time taken to populate each chunk.
+     *
+     * @return The latency histogram
+     */
+    public LatencyHistogram getLatency() {
+        return this.latency;
+    }
+
+    @Override
+    public long getChunksPopulated() {
+        return this.latency.getCount();
+    }
+
+    @Override
+    public double getMeanChunkNanos() {
+        return this.latency.getMeanNanos();
+    }
+
+    @Override
+    public long getP50ChunkNanos() {
+        return this.latency.getPercentileNanos(50);
+    }
+
+    @Override
+    public long getP99ChunkNanos() {
+        return this.latency.getPercentileNanos(99);
+    }
+
+    @Override
+    public long getMaxChunkNanos() {
+        return this.latency.getMaxNanos();
+    }
+
+    @Override
+    public long getBlocksPlaced() {
+        return this.blocksPlaced.sum();
+    }
+
+    @Override
+    public long getVeinsAttempted() {
+        return this.veinsAttempted.sum();
+    }
+
+    @Override
+    public long getVeinsPlaced() {
+        return this.veinsPlaced.sum();
+    }
+
+    @Override
+    public long getNeighbourChunksTouched() {
+        return this.neighbourChunksTouched.sum();
+    }
+
+    @Override
+    public void reset() {
+        this.latency.reset();
+        this.blocksPlaced.reset();
+        this.veinsAttempted.reset();
+        this.veinsPlaced.reset();
+        this.neighbourChunksTouched.reset();
+    }
+
+}
@@ -0,0 +1,142 @@
+/*
+ * This file is part of unnamed, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2017, Jamie Mansfield <https://www.jamierocks.uk/>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package uk.jamierocks.mc.unnamed.metrics;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nullable;
+
+/**
+ * The metrics of the items and exp dropped by Unnamed's blocks, kept per block.
+ *
+ * The metrics can periodically be appended to a CSV file, as rows of
+ * {@code time,block,fortune,items,exp} - where the counts are cumulative, since the
+ * metrics were last reset.
+ */
+public final class DropMetrics {
+
+    private final Map<String, BlockDropMetrics> blocks = new ConcurrentHashMap<>();
+    @Nullable private ScheduledExecutorService snapshots;
+
+    /**
+     * Gets the metrics of the given block, to be kept by the block so that recording
+     * doesn't require a lookup.
+     *
+     * @param block The registry name of the block
+     * @return The metrics
+     */
+    public BlockDropMetrics forBlock(String block) {
+        return this.blocks.computeIfAbsent(block, BlockDropMetrics::new);
+    }
+
+    /**
+     * Gets the metrics of every block, ordered by registry name.
+     *
+     * @return The metrics
+     */
+    public Collection<BlockDropMetrics> getBlocks() {
+        final List<BlockDropMetrics> blocks = new ArrayList<>(this.blocks.values());
+        blocks.sort((a, b) -> a.getBlock().compareTo(b.getBlock()));
+        return blocks;
+    }
+
+    /**
+     * Resets the metrics of every block.
+     */
+    public void reset() {
+        this.blocks.values().forEach(BlockDropMetrics::reset);
+    }
+
+    /**
+     * Appends a snapshot of the metrics to the given CSV file, writing the header
+     * first if the file is new.
+     *
+     * @param file The file
+     * @throws IOException Should the file fail to be written
+     */
+    public void writeSnapshot(File file) throws IOException {
+        final boolean header = !file.exists() || file.length() == 0;
+        final long time = System.currentTimeMillis();
+        try (final PrintWriter writer = new PrintWriter(new FileWriter(file, true))) {
+            if (header) {
+                writer.println("time,block,fortune,items,exp");
+            }
+            for (final BlockDropMetrics metrics : this.getBlocks()) {
+                for (int fortune = 0; fortune < BlockDropMetrics.FORTUNE_LEVELS; fortune++) {
+                    writer.println(time + "," + metrics.getBlock() + "," + fortune + "," + metrics.getItems(fortune) + ","
+                            + metrics.getExp(fortune));
+                }
+            }
+        }
+    }
+
+    /**
+     * Starts appending a snapshot of the metrics to the given CSV file, at the given
+     * interval, from a background thread.
+     *
+     * @param file The file
+     * @param interval The interval
+     * @param unit The unit of the interval
+     */
+    public synchronized void startSnapshots(File file, long interval, TimeUnit unit) {
+        this.stopSnapshots();
+        this.snapshots = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+                .setNameFormat("Unnamed Drop Snapshots")
+                .setDaemon(true)
+                .build());
+        this.snapshots.scheduleAtFixedRate(() -> {
+            try {
+                this.writeSnapshot(file);
+            } catch (IOException ignored) {
+                // the metrics are still available through the command
+            }
+        }, interval, interval, unit);
+    }
+
+    /**
+     * Stops appending snapshots, if they were started.
+     */
+    public synchronized void stopSnapshots() {
+        if (this.snapshots != null) {
+            this.snapshots.shutdownNow();
+            this.snapshots = null;
+        }
+    }
+
+}
@@ -0,0 +1,143 @@
+/*
+ * This file is part of unnamed, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2017, Jamie Mansfield <https://www.jamierocks.uk/>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package uk.jamierocks.mc.unnamed.metrics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A histogram of latencies, bucketed by powers of two nanoseconds.
+ *
+ * Every bucket is a striped {@link LongAdder}, so recording from many threads at once
+ * costs little more than recording from one.
+ */
+public final class LatencyHistogram {
+
+    private static final int BUCKETS = 64;
+
+    private final LongAdder[] buckets = new LongAdder[BUCKETS];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder total = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    public LatencyHistogram() {
+        for (int i = 0; i < this.buckets.length; i++) {
+            this.buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Records the given latency.
+     *
+     * @param nanos The latency, in nanoseconds
+     */
+    public void record(long nanos) {
+        final long value = Math.max(0, nanos);
+        this.buckets[BUCKETS - Long.numberOfLeadingZeros(value)].increment();
+        this.count.increment();
+        this.total.add(value);
+        this.max.accumulate(value);
+    }
+
+    /**
+     * Gets the number of latencies recorded.
+     *
+     * @return The count
+     */
+    public long getCount() {
+        return this.count.sum();
+    }
+
+    /**
+     * Gets the sum of the latencies recorded.
+     *
+     * @return The total latency, in nanoseconds
+     */
+    public long getTotalNanos() {
+        return this.total.sum();
+    }
+
+    /**
+     * Gets the greatest latency recorded.
+     *
+     * @return The maximum latency, in nanoseconds
+     */
+    public long getMaxNanos() {
+        return this.max.get();
+    }
+
+    /**
+     * Gets the mean of the latencies recorded, or {@code 0} if there are none.
+     *
+     * @return The mean latency, in nanoseconds
+     */
+    public double getMeanNanos() {
+        final long count = this.getCount();
+        return count == 0 ? 0 : (double) this.getTotalNanos() / count;
+    }
+
+    /**
+     * Gets an upper bound of the given percentile, accurate to the power of two
+     * that contains it.
+     *
+     * @param percentile The percentile, between 0 and 100
+     * @return The upper bound of the percentile, in nanoseconds
+     */
+    public long getPercentileNanos(double percentile) {
+        final long[] counts = new long[BUCKETS];
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = this.buckets[i].sum();
+            count += counts[i];
+        }
+        if (count == 0) {
+            return 0;
+        }
+
+        final long target = (long) Math.ceil(count * percentile / 100.0);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= target && counts[i] != 0) {
+                return Math.min(i == 0 ? 0 : (1L << i) - 1, this.getMaxNanos());
+            }
+        }
+        return this.getMaxNanos();
+    }
+
+    /**
+     * Resets the histogram.
+     */
+    public void reset() {
+        for (final LongAdder bucket : this.buckets) {
+            bucket.reset();
+        }
+        this.count.reset();
+        this.total.reset();
+        this.max.reset();
+    }
+
+}
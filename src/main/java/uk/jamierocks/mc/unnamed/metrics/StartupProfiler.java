@@ -0,0 +1,153 @@
+/*
+ * This file is part of unnamed, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2017, Jamie Mansfield <https://www.jamierocks.uk/>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package uk.jamierocks.mc.unnamed.metrics;
+
+import com.google.gson.stream.JsonWriter;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.annotation.Nullable;
+
+/**
+ * The time taken, and memory allocated, by each phase of Unnamed's startup, written
+ * as a JSON report once loading is complete.
+ *
+ * A phase may be timed any number of times, such as once for each item, and its
+ * calls are summed. Phases may be nested, in which case the outer phase includes
+ * the inner phase. Allocations are counted for the thread timing the phase, where
+ * the JVM supports it, and are otherwise reported as {@code -1}.
+ */
+public final class StartupProfiler {
+
+    @Nullable private final com.sun.management.ThreadMXBean threads;
+    private final Map<String, Phase> phases = new LinkedHashMap<>();
+
+    public StartupProfiler() {
+        final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean
+                && ((com.sun.management.ThreadMXBean) threads).isThreadAllocatedMemorySupported()
+                && ((com.sun.management.ThreadMXBean) threads).isThreadAllocatedMemoryEnabled()) {
+            this.threads = (com.sun.management.ThreadMXBean) threads;
+        } else {
+            this.threads = null;
+        }
+    }
+
+    /**
+     * Starts timing the given phase, which is recorded once the returned timer is closed.
+     *
+     * @param phase The name of the phase
+     * @return The timer
+     */
+    public Timer start(String phase) {
+        return new Timer(this.getPhase(phase), this.getAllocatedBytes(), System.nanoTime());
+    }
+
+    /**
+     * Writes the report of every phase timed to the given file.
+     *
+     * @param file The file
+     * @throws IOException Should the file fail to be written
+     */
+    public synchronized void writeReport(File file) throws IOException {
+        try (final JsonWriter writer = new JsonWriter(new FileWriter(file))) {
+            writer.setIndent("    ");
+            writer.beginObject();
+            writer.name("time").value(System.currentTimeMillis());
+            writer.name("allocationsCounted").value(this.threads != null);
+            writer.name("phases").beginArray();
+            for (final Phase phase : this.phases.values()) {
+                writer.beginObject();
+                writer.name("name").value(phase.name);
+                writer.name("calls").value(phase.calls);
+                writer.name("nanos").value(phase.nanos);
+                writer.name("millis").value(phase.nanos / 1_000_000.0);
+                writer.name("allocatedBytes").value(this.threads != null ? phase.allocatedBytes : -1);
+                writer.endObject();
+            }
+            writer.endArray();
+            writer.endObject();
+        }
+    }
+
+    private long getAllocatedBytes() {
+        return this.threads != null ? this.threads.getThreadAllocatedBytes(Thread.currentThread().getId()) : 0;
+    }
+
+    // the phases are reported in the order they are first started
+    private synchronized Phase getPhase(String name) {
+        return this.phases.computeIfAbsent(name, Phase::new);
+    }
+
+    private synchronized void record(Phase phase, long nanos, long allocatedBytes) {
+        phase.calls++;
+        phase.nanos += nanos;
+        phase.allocatedBytes += allocatedBytes;
+    }
+
+    /**
+     * A timer of a single call of a phase, to be closed once the phase is complete.
+     */
+    public final class Timer implements AutoCloseable {
+
+        private final Phase phase;
+        private final long startAllocatedBytes;
+        private final long startNanos;
+
+        private Timer(Phase phase, long startAllocatedBytes, long startNanos) {
+            this.phase = phase;
+            this.startAllocatedBytes = startAllocatedBytes;
+            this.startNanos = startNanos;
+        }
+
+        @Override
+        public void close() {
+            final long nanos = System.nanoTime() - this.startNanos;
+            StartupProfiler.this.record(this.phase, nanos, StartupProfiler.this.getAllocatedBytes() - this.startAllocatedBytes);
+        }
+
+    }
+
+    private static final class Phase {
+
+        private final String name;
+        private int calls;
+        private long nanos;
+        private long allocatedBytes;
+
+        Phase(String name) {
+            this.name = name;
+        }
+
+    }
+
+}
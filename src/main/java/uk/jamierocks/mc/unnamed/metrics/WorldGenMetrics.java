@@ -0,0 +1,97 @@
+/*
+ * This file is part of unnamed, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2017, Jamie Mansfield <https://www.jamierocks.uk/>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package uk.jamierocks.mc.unnamed.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * The metrics of Unnamed's world generation, kept per dimension.
+ *
+ * Each dimension's metrics are also registered as an MBean, named
+ * {@code uk.jamierocks.mc.unnamed:type=WorldGen,dimension=<id>}.
+ */
+public final class WorldGenMetrics {
+
+    private final Map<Integer, DimensionWorldGenMetrics> dimensions = new ConcurrentHashMap<>();
+
+    /**
+     * Records the population of a chunk.
+     *
+     * @param dimension The dimension id
+     * @param nanos The time taken to populate the chunk, in nanoseconds
+     * @param blocksPlaced The number of blocks placed
+     * @param veinsAttempted The number of veins planned
+     * @param veinsPlaced The number of veins that placed at least one block
+     * @param neighbourChunksTouched The number of neighbouring chunks written to
+     */
+    public void record(int dimension, long nanos, int blocksPlaced, int veinsAttempted, int veinsPlaced, int neighbourChunksTouched) {
+        DimensionWorldGenMetrics metrics = this.dimensions.get(dimension);
+        if (metrics == null) {
+            metrics = this.dimensions.computeIfAbsent(dimension, WorldGenMetrics::register);
+        }
+        metrics.record(nanos, blocksPlaced, veinsAttempted, veinsPlaced, neighbourChunksTouched);
+    }
+
+    /**
+     * Gets the metrics of every dimension that has populated a chunk, ordered by dimension id.
+     *
+     * @return The metrics
+     */
+    public Collection<DimensionWorldGenMetrics> getDimensions() {
+        final List<DimensionWorldGenMetrics> dimensions = new ArrayList<>(this.dimensions.values());
+        dimensions.sort((a, b) -> Integer.compare(a.getDimension(), b.getDimension()));
+        return dimensions;
+    }
+
+    /**
+     * Resets the metrics of every dimension.
+     */
+    public void reset() {
+        this.dimensions.values().forEach(DimensionWorldGenMetrics::reset);
+    }
+
+    private static DimensionWorldGenMetrics register(int dimension) {
+        final DimensionWorldGenMetrics metrics = new DimensionWorldGenMetrics(dimension);
+        try {
+            final ObjectName name = new ObjectName("uk.jamierocks.mc.unnamed:type=WorldGen,dimension=" + dimension);
+            if (!ManagementFactory.getPlatformMBeanServer().isRegistered(name)) {
+                ManagementFactory.getPlatformMBeanServer().registerMBean(metrics, name);
+            }
+        } catch (JMException ignored) {
+            // the metrics are still available through the command
+        }
+        return metrics;
+    }
+
+}
@@ -0,0 +1,175 @@
+/*
+ * This file is part of unnamed, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2017, Jamie Mansfield <https://www.jamierocks.uk/>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package uk.jamierocks.mc.unnamed.recipe;
+
+import net.minecraft.inventory.InventoryCrafting;
+import net.minecraft.item.ItemStack;
+import net.minecraft.item.crafting.CraftingManager;
+import net.minecraft.item.crafting.IRecipe;
+import net.minecraft.item.crafting.ShapedRecipes;
+import net.minecraft.util.NonNullList;
+import net.minecraft.world.World;
+import net.minecraftforge.common.ForgeHooks;
+import net.minecraftforge.oredict.RecipeSorter;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.Nullable;
+
+/**
+ * Unnamed's shaped recipes, indexed by the {@link RecipeFingerprint} of their
+ * ingredients, so that matching a crafting grid against them is a hash lookup rather
+ * than a scan of the {@link CraftingManager}.
+ *
+ * The index is installed as a single recipe ahead of every other, and the result of
+ * the last lookup on each thread - hit or miss - is kept, as the crafting manager
+ * asks for the same grid several times per craft. As the fingerprints are of item
+ * ids, the index must be rebuilt whenever the ids are remapped.
+ *
+ * Only recipes whose every ingredient is a single item and meta can be indexed, the
+ * rest are left to the crafting manager.
+ */
+public final class IndexedRecipes implements IRecipe {
+
+    static {
+        RecipeSorter.register("unnamed:indexed", IndexedRecipes.class, RecipeSorter.Category.SHAPED, "before:minecraft:shaped");
+    }
+
+    private final List<ShapedRecipes> recipes = new ArrayList<>();
+    private final ThreadLocal<Lookup> lookups = ThreadLocal.withInitial(Lookup::new);
+    private volatile Map<RecipeFingerprint, ShapedRecipes> index = new HashMap<>();
+    private volatile int generation;
+
+    /**
+     * Adds the given recipe to the index, should it be indexable.
+     *
+     * The recipe is still left in the crafting manager, for anything listing recipes,
+     * but will be matched by the index first.
+     *
+     * @param recipe The recipe
+     * @return {@code true} if the recipe was indexed
+     */
+    public boolean add(IRecipe recipe) {
+        if (!(recipe instanceof ShapedRecipes) || RecipeFingerprint.of((ShapedRecipes) recipe, false) == null) {
+            return false;
+        }
+        this.recipes.add((ShapedRecipes) recipe);
+        this.rebuild();
+        return true;
+    }
+
+    /**
+     * Rebuilds the index, from the current item ids, discarding the results of any
+     * previous lookups.
+     */
+    public void rebuild() {
+        final Map<RecipeFingerprint, ShapedRecipes> index = new HashMap<>();
+        for (final ShapedRecipes recipe : this.recipes) {
+            // vanilla matches shaped recipes mirrored, as well as not
+            index.putIfAbsent(RecipeFingerprint.of(recipe, false), recipe);
+            index.putIfAbsent(RecipeFingerprint.of(recipe, true), recipe);
+        }
+        this.index = index;
+        this.generation++;
+    }
+
+    /**
+     * Installs the index ahead of every other recipe in the crafting manager, if it
+     * hasn't been already.
+     */
+    public void install() {
+        final List<IRecipe> recipes = CraftingManager.getInstance().getRecipeList();
+        if (!recipes.contains(this)) {
+            recipes.add(0, this);
+        }
+    }
+
+    /**
+     * Finds the indexed recipe matching the given crafting grid.
+     *
+     * @param inv The crafting grid
+     * @return The recipe, or {@code null} if none match
+     */
+    @Nullable
+    public IRecipe find(InventoryCrafting inv) {
+        final Lookup lookup = this.lookups.get();
+        lookup.probe.set(inv);
+
+        final int generation = this.generation;
+        if (lookup.generation == generation && lookup.probe.equals(lookup.last)) {
+            return lookup.result;
+        }
+
+        lookup.result = this.index.get(lookup.probe);
+        lookup.last.set(lookup.probe);
+        lookup.generation = generation;
+        return lookup.result;
+    }
+
+    @Override
+    public boolean matches(InventoryCrafting inv, World world) {
+        return this.find(inv) != null;
+    }
+
+    @Override
+    public ItemStack getCraftingResult(InventoryCrafting inv) {
+        final IRecipe recipe = this.find(inv);
+        return recipe != null ? recipe.getCraftingResult(inv) : ItemStack.EMPTY;
+    }
+
+    @Override
+    public int getRecipeSize() {
+        return 9;
+    }
+
+    @Override
+    public ItemStack getRecipeOutput() {
+        // the index has no single output
+        return ItemStack.EMPTY;
+    }
+
+    @Override
+    public NonNullList<ItemStack> getRemainingItems(InventoryCrafting inv) {
+        final IRecipe recipe = this.find(inv);
+        return recipe != null ? recipe.getRemainingItems(inv) : ForgeHooks.defaultRecipeGetRemainingItems(inv);
+    }
+
+    /**
+     * The last lookup made on a thread.
+     */
+    private static final class Lookup {
+
+        private final RecipeFingerprint probe = new RecipeFingerprint();
+        private final RecipeFingerprint last = new RecipeFingerprint();
+        @Nullable private IRecipe result;
+        private int generation = -1;
+
+    }
+
+}
@@ -0,0 +1,177 @@
+/*
+ * This file is part of unnamed, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2017, Jamie Mansfield <https://www.jamierocks.uk/>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package uk.jamierocks.mc.unnamed.recipe;
+
+import net.minecraft.inventory.InventoryCrafting;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraft.item.crafting.ShapedRecipes;
+
+import java.util.Arrays;
+
+import javax.annotation.Nullable;
+
+/**
+ * The ingredients of a crafting grid, trimmed to the slots that aren't empty, with
+ * each slot packed as its item id and meta.
+ *
+ * Fingerprints are mutable, so that the same fingerprint can be refilled for each
+ * lookup, but must not be changed once used as a key.
+ */
+final class RecipeFingerprint {
+
+    private static final int EMPTY = 0;
+
+    private int width;
+    private int height;
+    private int[] slots = new int[9];
+    private int hash;
+
+    /**
+     * Creates the fingerprint of the given recipe, optionally mirrored.
+     *
+     * @param recipe The recipe
+     * @param mirrored Whether the recipe is mirrored
+     * @return The fingerprint, or {@code null} if the recipe has ingredients that
+     *         match more than one meta
+     */
+    @Nullable
+    static RecipeFingerprint of(ShapedRecipes recipe, boolean mirrored) {
+        final RecipeFingerprint fingerprint = new RecipeFingerprint();
+        fingerprint.width = recipe.recipeWidth;
+        fingerprint.height = recipe.recipeHeight;
+        fingerprint.slots = new int[recipe.recipeWidth * recipe.recipeHeight];
+        for (int row = 0; row < recipe.recipeHeight; row++) {
+            for (int column = 0; column < recipe.recipeWidth; column++) {
+                final int recipeColumn = mirrored ? recipe.recipeWidth - column - 1 : column;
+                final ItemStack ingredient = recipe.recipeItems[recipeColumn + row * recipe.recipeWidth];
+                if (ingredient != null && !ingredient.isEmpty() && ingredient.getMetadata() == Short.MAX_VALUE) {
+                    return null;
+                }
+                fingerprint.slots[column + row * recipe.recipeWidth] = pack(ingredient);
+            }
+        }
+        fingerprint.rehash();
+        return fingerprint;
+    }
+
+    /**
+     * Refills the fingerprint from the given crafting grid.
+     *
+     * @param inv The crafting grid
+     */
+    void set(InventoryCrafting inv) {
+        int minRow = inv.getHeight();
+        int maxRow = -1;
+        int minColumn = inv.getWidth();
+        int maxColumn = -1;
+        for (int row = 0; row < inv.getHeight(); row++) {
+            for (int column = 0; column < inv.getWidth(); column++) {
+                // despite its name, the grid is read by column then row
+                if (!inv.getStackInRowAndColumn(column, row).isEmpty()) {
+                    minRow = Math.min(minRow, row);
+                    maxRow = Math.max(maxRow, row);
+                    minColumn = Math.min(minColumn, column);
+                    maxColumn = Math.max(maxColumn, column);
+                }
+            }
+        }
+
+        this.width = Math.max(maxColumn - minColumn + 1, 0);
+        this.height = Math.max(maxRow - minRow + 1, 0);
+        if (this.slots.length < this.width * this.height) {
+            this.slots = new int[this.width * this.height];
+        }
+        for (int row = 0; row < this.height; row++) {
+            for (int column = 0; column < this.width; column++) {
+                this.slots[column + row * this.width] = pack(inv.getStackInRowAndColumn(minColumn + column, minRow + row));
+            }
+        }
+        this.rehash();
+    }
+
+    /**
+     * Copies the given fingerprint into this one.
+     *
+     * @param other The fingerprint to copy
+     */
+    void set(RecipeFingerprint other) {
+        this.width = other.width;
+        this.height = other.height;
+        if (this.slots.length < other.width * other.height) {
+            this.slots = new int[other.width * other.height];
+        }
+        System.arraycopy(other.slots, 0, this.slots, 0, other.width * other.height);
+        this.hash = other.hash;
+    }
+
+    private static int pack(@Nullable ItemStack stack) {
+        if (stack == null || stack.isEmpty()) {
+            return EMPTY;
+        }
+        return Item.getIdFromItem(stack.getItem()) << 16 | stack.getMetadata() & 0xFFFF;
+    }
+
+    private void rehash() {
+        int hash = 31 * this.width + this.height;
+        for (int i = 0; i < this.width * this.height; i++) {
+            hash = 31 * hash + this.slots[i];
+        }
+        this.hash = hash;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof RecipeFingerprint)) {
+            return false;
+        }
+        final RecipeFingerprint that = (RecipeFingerprint) obj;
+        if (this.hash != that.hash || this.width != that.width || this.height != that.height) {
+            return false;
+        }
+        final int size = this.width * this.height;
+        for (int i = 0; i < size; i++) {
+            if (this.slots[i] != that.slots[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        return this.hash;
+    }
+
+    @Override
+    public String toString() {
+        return this.width + "x" + this.height + Arrays.toString(Arrays.copyOf(this.slots, this.width * this.height));
+    }
+
+}
@@ -0,0 +1,132 @@
+/*
+ * This file is part of unnamed, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2017, Jamie Mansfield <https://www.jamierocks.uk/>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package uk.jamierocks.mc.unnamed.tool;
+
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.nbt.NBTTagList;
+import net.minecraftforge.common.util.Constants;
+
+/**
+ * A view of the blocks of a chunk, as it is saved in an Anvil region file.
+ *
+ * Blocks are given as {@code id << 4 | meta}, the form used by the save format.
+ */
+final class AnvilChunk {
+
+    private final NBTTagCompound root;
+    private final NBTTagCompound[] sections = new NBTTagCompound[16];
+    private boolean modified;
+
+    AnvilChunk(NBTTagCompound root) {
+        this.root = root;
+
+        final NBTTagList sections = this.getLevel().getTagList("Sections", Constants.NBT.TAG_COMPOUND);
+        for (int i = 0; i < sections.tagCount(); i++) {
+            final NBTTagCompound section = sections.getCompoundTagAt(i);
+            this.sections[section.getByte("Y") & 15] = section;
+        }
+    }
+
+    NBTTagCompound getRoot() {
+        return this.root;
+    }
+
+    private NBTTagCompound getLevel() {
+        return this.root.getCompoundTag("Level");
+    }
+
+    boolean isPopulated() {
+        return this.getLevel().getBoolean("TerrainPopulated");
+    }
+
+    boolean isModified() {
+        return this.modified;
+    }
+
+    /**
+     * Gets the block at the given position, within the chunk.
+     *
+     * @param x The x coordinate, within the chunk
+     * @param y The y coordinate
+     * @param z The z coordinate, within the chunk
+     * @return The block, or {@code -1} if the section is empty
+     */
+    int getBlock(int x, int y, int z) {
+        final NBTTagCompound section = this.sections[y >> 4];
+        if (section == null) {
+            return -1;
+        }
+
+        final int index = (y & 15) << 8 | z << 4 | x;
+        int id = section.getByteArray("Blocks")[index] & 0xFF;
+        if (section.hasKey("Add", Constants.NBT.TAG_BYTE_ARRAY)) {
+            id |= getNibble(section.getByteArray("Add"), index) << 8;
+        }
+        return id << 4 | getNibble(section.getByteArray("Data"), index);
+    }
+
+    /**
+     * Sets the block at the given position, within the chunk. The section
+     * must not be empty.
+     *
+     * @param x The x coordinate, within the chunk
+     * @param y The y coordinate
+     * @param z The z coordinate, within the chunk
+     * @param block The block
+     */
+    void setBlock(int x, int y, int z, int block) {
+        final NBTTagCompound section = this.sections[y >> 4];
+        final int index = (y & 15) << 8 | z << 4 | x;
+        final int id = block >> 4;
+
+        section.getByteArray("Blocks")[index] = (byte) id;
+        if (id > 255 && !section.hasKey("Add", Constants.NBT.TAG_BYTE_ARRAY)) {
+            section.setByteArray("Add", new byte[2048]);
+        }
+        if (section.hasKey("Add", Constants.NBT.TAG_BYTE_ARRAY)) {
+            setNibble(section.getByteArray("Add"), index, id >> 8);
+        }
+        setNibble(section.getByteArray("Data"), index, block & 15);
+        this.modified = true;
+    }
+
+    // adapted from NibbleArray#get(int, int, int)
+    private static int getNibble(byte[] nibbles, int index) {
+        final int value = nibbles[index >> 1];
+        return (index & 1) == 0 ? value & 15 : value >> 4 & 15;
+    }
+
+    // adapted from NibbleArray#set(int, int, int, int)
+    private static void setNibble(byte[] nibbles, int index, int value) {
+        final int i = index >> 1;
+        if ((index & 1) == 0) {
+            nibbles[i] = (byte) (nibbles[i] & 240 | value & 15);
+        } else {
+            nibbles[i] = (byte) (nibbles[i] & 15 | (value & 15) << 4);
+        }
+    }
+
+}
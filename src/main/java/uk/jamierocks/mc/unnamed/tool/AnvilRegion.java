@@ -0,0 +1,250 @@
+/*
+ * This file is part of unnamed, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2017, Jamie Mansfield <https://www.jamierocks.uk/>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package uk.jamierocks.mc.unnamed.tool;
+
+import net.minecraft.nbt.CompressedStreamTools;
+import net.minecraft.nbt.NBTTagCompound;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import javax.annotation.Nullable;
+
+/**
+ * A minimal reader and writer of Anvil region files ({@code .mca}), for use by
+ * the offline tools.
+ *
+ * Chunks are only ever written back individually, leaving every other chunk
+ * untouched. As with vanilla's {@link net.minecraft.world.chunk.storage.RegionFile},
+ * a chunk is written in place where it still needs as many sectors, and otherwise
+ * into the first run of free sectors large enough - only growing the file when there
+ * is none.
+ */
+final class AnvilRegion implements Closeable {
+
+    static final int CHUNKS = 32;
+    private static final int SECTOR_SIZE = 4096;
+    private static final int HEADER_SECTORS = 2;
+    private static final int MAX_SECTORS = 255;
+    private static final byte GZIP = 1;
+    private static final byte ZLIB = 2;
+
+    private final FileChannel channel;
+    private final int[] locations = new int[CHUNKS * CHUNKS];
+    // the sectors used by the header and chunks, any other is free to be written to
+    private final BitSet usedSectors = new BitSet();
+    private int endSector;
+
+    AnvilRegion(Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        this.endSector = Math.max((int) ((this.channel.size() + SECTOR_SIZE - 1) / SECTOR_SIZE), HEADER_SECTORS);
+        this.usedSectors.set(0, HEADER_SECTORS);
+        if (this.channel.size() >= SECTOR_SIZE) {
+            final ByteBuffer header = ByteBuffer.allocate(SECTOR_SIZE);
+            this.readFully(header, 0);
+            for (int i = 0; i < this.locations.length; i++) {
+                this.locations[i] = header.getInt(i * 4);
+                final int sector = this.locations[i] >>> 8;
+                final int sectors = this.locations[i] & 0xFF;
+                if (sector >= HEADER_SECTORS && sector + sectors <= this.endSector) {
+                    this.usedSectors.set(sector, sector + sectors);
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the index of the given chunk, within its region.
+     *
+     * @param chunkX The x coordinate of the chunk
+     * @param chunkZ The z coordinate of the chunk
+     * @return The index
+     */
+    static int index(int chunkX, int chunkZ) {
+        return (chunkX & (CHUNKS - 1)) + (chunkZ & (CHUNKS - 1)) * CHUNKS;
+    }
+
+    /**
+     * Reads the chunk at the given index.
+     *
+     * @param index The index of the chunk
+     * @return The chunk, or {@code null} if it has not been generated
+     * @throws IOException Should the chunk not be readable
+     */
+    @Nullable
+    NBTTagCompound read(int index) throws IOException {
+        final int location = this.locations[index];
+        if (location == 0) {
+            return null;
+        }
+
+        final long offset = (long) (location >>> 8) * SECTOR_SIZE;
+        if (offset + 5 > this.channel.size()) {
+            throw new IOException("Chunk " + index + " lies outside of its region file");
+        }
+
+        final ByteBuffer prefix = ByteBuffer.allocate(5);
+        this.readFully(prefix, offset);
+        final int length = prefix.getInt(0) - 1;
+        final byte compression = prefix.get(4);
+        if (length < 0 || length > (location & 0xFF) * SECTOR_SIZE) {
+            throw new IOException("Chunk " + index + " has an invalid length " + length);
+        }
+        final ByteBuffer data = ByteBuffer.allocate(length);
+        this.readFully(data, offset + 5);
+
+        final InputStream in = new ByteBufferInputStream(data);
+        switch (compression) {
+            case GZIP:
+                return CompressedStreamTools.read(new DataInputStream(new BufferedInputStream(new GZIPInputStream(in))));
+            case ZLIB:
+                return CompressedStreamTools.read(new DataInputStream(new BufferedInputStream(new InflaterInputStream(in))));
+            default:
+                throw new IOException("Chunk " + index + " has unknown compression " + compression);
+        }
+    }
+
+    /**
+     * Writes the chunk at the given index.
+     *
+     * @param index The index of the chunk
+     * @param chunk The chunk
+     * @throws IOException Should the chunk not be writable
+     */
+    void write(int index, NBTTagCompound chunk) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(SECTOR_SIZE);
+        try (final DataOutputStream out = new DataOutputStream(new DeflaterOutputStream(bytes))) {
+            CompressedStreamTools.write(chunk, out);
+        }
+
+        final int sectors = (bytes.size() + 5 + SECTOR_SIZE - 1) / SECTOR_SIZE;
+        if (sectors > MAX_SECTORS) {
+            throw new IOException("Chunk " + index + " is too large to be written");
+        }
+
+        // adapted from RegionFile#write(int, int, byte[], int)
+        int sector = this.locations[index] >>> 8;
+        final int oldSectors = this.locations[index] & 0xFF;
+        if (sector == 0 || sectors != oldSectors) {
+            if (sector != 0) {
+                this.usedSectors.clear(sector, sector + oldSectors);
+            }
+            sector = this.findFreeSectors(sectors);
+            this.usedSectors.set(sector, sector + sectors);
+            this.endSector = Math.max(this.endSector, sector + sectors);
+        }
+
+        final ByteBuffer data = ByteBuffer.allocate(sectors * SECTOR_SIZE);
+        data.putInt(bytes.size() + 1);
+        data.put(ZLIB);
+        data.put(bytes.toByteArray());
+        data.rewind();
+        this.writeFully(data, (long) sector * SECTOR_SIZE);
+
+        this.locations[index] = sector << 8 | sectors;
+        final ByteBuffer header = ByteBuffer.allocate(4);
+        header.putInt(0, this.locations[index]);
+        this.writeFully(header, index * 4L);
+        header.putInt(0, (int) (System.currentTimeMillis() / 1000L));
+        this.writeFully(header, SECTOR_SIZE + index * 4L);
+    }
+
+    private int findFreeSectors(int sectors) {
+        int start = this.usedSectors.nextClearBit(HEADER_SECTORS);
+        while (start < this.endSector) {
+            final int end = this.usedSectors.nextSetBit(start);
+            if (end == -1 || end - start >= sectors) {
+                // a run at the end of the file can extend past it
+                return start;
+            }
+            start = this.usedSectors.nextClearBit(end);
+        }
+        return this.endSector;
+    }
+
+    private void readFully(ByteBuffer data, long position) throws IOException {
+        while (data.hasRemaining()) {
+            final int read = this.channel.read(data, position);
+            if (read == -1) {
+                throw new IOException("Unexpected end of region file");
+            }
+            position += read;
+        }
+        data.rewind();
+    }
+
+    private void writeFully(ByteBuffer data, long position) throws IOException {
+        while (data.hasRemaining()) {
+            position += this.channel.write(data, position);
+        }
+        data.rewind();
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.channel.close();
+    }
+
+    private static final class ByteBufferInputStream extends InputStream {
+
+        private final ByteBuffer buffer;
+
+        private ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return this.buffer.hasRemaining() ? this.buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (!this.buffer.hasRemaining()) {
+                return -1;
+            }
+            length = Math.min(length, this.buffer.remaining());
+            this.buffer.get(bytes, offset, length);
+            return length;
+        }
+
+    }
+
+}
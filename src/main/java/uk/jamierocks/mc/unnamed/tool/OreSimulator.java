@@ -0,0 +1,285 @@
+/*
+ * This file is part of unnamed, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2017, Jamie Mansfield <https://www.jamierocks.uk/>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package uk.jamierocks.mc.unnamed.tool;
+
+import uk.jamierocks.mc.unnamed.config.UnnamedConfig;
+import uk.jamierocks.mc.unnamed.world.ChunkSeeds;
+import uk.jamierocks.mc.unnamed.world.OreDefinition;
+import uk.jamierocks.mc.unnamed.world.OrePlan;
+import uk.jamierocks.mc.unnamed.world.OreRandom;
+import uk.jamierocks.mc.unnamed.world.OreVeinPlanner;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * A headless simulator of Unnamed's ore generation, for predicting the density and cost
+ * of generation settings without starting a server.
+ *
+ * Chunks are planned exactly as the {@link uk.jamierocks.mc.unnamed.UnnamedWorldGenerator}
+ * would plan them, and written into a model of a chunk that is stone up to a given height.
+ * Each chunk is simulated in isolation, so veins that overlap those of neighbouring chunks
+ * are counted in full.
+ *
+ * Usage: {@code OreSimulator [--chunks count] [--threads count] [--seed seed]
+ * [--random vanilla|xorshift] [--stone-height height]
+ * [--ore veinSize,veinCount,minHeight,maxHeight]...}
+ */
+public final class OreSimulator {
+
+    private static final int MAX_VEIN_SIZE = 512;
+
+    public static void main(String[] args) {
+        long chunks = 1_000_000;
+        int threads = Runtime.getRuntime().availableProcessors();
+        long seed = 0;
+        String random = "vanilla";
+        int stoneHeight = 64;
+        final List<OreDefinition> ores = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--chunks":
+                    chunks = Long.parseLong(args[++i]);
+                    break;
+                case "--threads":
+                    threads = Integer.parseInt(args[++i]);
+                    break;
+                case "--seed":
+                    seed = Long.parseLong(args[++i]);
+                    break;
+                case "--random":
+                    random = args[++i];
+                    break;
+                case "--stone-height":
+                    stoneHeight = Integer.parseInt(args[++i]);
+                    break;
+                case "--ore":
+                    final int[] values = Arrays.stream(args[++i].split(",")).mapToInt(Integer::parseInt).toArray();
+                    if (values.length != 4) {
+                        throw new IllegalArgumentException("An ore must be given as veinSize,veinCount,minHeight,maxHeight");
+                    }
+                    ores.add(new OreDefinition("ore" + ores.size(), values[0], values[1], values[2], values[3], new int[] { 0 }));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown argument " + args[i]);
+            }
+        }
+        if (ores.isEmpty()) {
+            ores.add(UnnamedConfig.TUNGSTEN_ORE);
+        }
+
+        final OreSimulator simulator = new OreSimulator(new ChunkSeeds(seed), random, stoneHeight, ores);
+        final long total = chunks;
+        final int workers = threads;
+
+        final long start = System.nanoTime();
+        final Stats stats = new ForkJoinPool(threads).submit(() -> IntStream.range(0, workers).parallel()
+                .mapToObj(worker -> simulator.simulate(total * worker / workers, total * (worker + 1) / workers))
+                .collect(Collectors.reducing(new Stats(), Stats::merge))).join();
+        final long elapsed = System.nanoTime() - start;
+
+        stats.print(System.out, elapsed, threads);
+    }
+
+    private final ChunkSeeds seeds;
+    private final String random;
+    private final int stoneHeight;
+    private final List<OreDefinition> ores;
+
+    private OreSimulator(ChunkSeeds seeds, String random, int stoneHeight, List<OreDefinition> ores) {
+        this.seeds = seeds;
+        this.random = random;
+        this.stoneHeight = stoneHeight;
+        this.ores = ores;
+    }
+
+    /**
+     * Simulates the chunks in the given range, laid out in rows of 1024 chunks.
+     *
+     * @param from The first chunk, inclusive
+     * @param to The last chunk, exclusive
+     * @return The statistics of the simulated chunks
+     */
+    private Stats simulate(long from, long to) {
+        final Stats stats = new Stats();
+        final Random chunkRandom = new Random();
+        final OreRandom oreRandom = OreRandom.of(this.random);
+        final OrePlan plan = new OrePlan();
+        final PositionSet placed = new PositionSet();
+
+        for (long chunk = from; chunk < to; chunk++) {
+            final long start = System.nanoTime();
+            final int chunkX = (int) (chunk % 1024) - 512;
+            final int chunkZ = (int) (chunk / 1024) - 512;
+
+            chunkRandom.setSeed(this.seeds.forChunk(chunkX, chunkZ));
+            oreRandom.seed(chunkRandom);
+            for (int i = 0; i < this.ores.size(); i++) {
+                final OreDefinition ore = this.ores.get(i);
+                OreVeinPlanner.planStandardOre(oreRandom, chunkX << 4, chunkZ << 4, i, ore.getVeinSize(), ore.getVeinCount(),
+                        ore.getMinHeight(), ore.getMaxHeight(), plan);
+            }
+
+            // write the plan into a chunk of stone, where a block is only replaced once
+            int chunkOres = 0;
+            int veinStart = 0;
+            for (int vein = 0; vein < plan.getVeinCount(); vein++) {
+                int veinOres = 0;
+                for (int i = veinStart; i < plan.getVeinEnd(vein); i++) {
+                    final long position = plan.getPosition(i);
+                    final int y = OrePlan.unpackY(position);
+                    if (y >= 0 && y < this.stoneHeight && placed.add(position)) {
+                        stats.yLevels[y]++;
+                        veinOres++;
+                    }
+                }
+                stats.veinSizes[Math.min(veinOres, MAX_VEIN_SIZE)]++;
+                chunkOres += veinOres;
+                veinStart = plan.getVeinEnd(vein);
+            }
+            plan.clear();
+            placed.clear();
+
+            stats.chunks++;
+            stats.ores += chunkOres;
+            stats.minOres = Math.min(stats.minOres, chunkOres);
+            stats.maxOres = Math.max(stats.maxOres, chunkOres);
+            stats.nanos += System.nanoTime() - start;
+        }
+        return stats;
+    }
+
+    private static final class Stats {
+
+        private long chunks;
+        private long ores;
+        private long minOres = Long.MAX_VALUE;
+        private long maxOres;
+        private long nanos;
+        private final long[] yLevels = new long[256];
+        private final long[] veinSizes = new long[MAX_VEIN_SIZE + 1];
+
+        private Stats merge(Stats other) {
+            final Stats merged = new Stats();
+            merged.chunks = this.chunks + other.chunks;
+            merged.ores = this.ores + other.ores;
+            merged.minOres = Math.min(this.minOres, other.minOres);
+            merged.maxOres = Math.max(this.maxOres, other.maxOres);
+            merged.nanos = this.nanos + other.nanos;
+            for (int i = 0; i < merged.yLevels.length; i++) {
+                merged.yLevels[i] = this.yLevels[i] + other.yLevels[i];
+            }
+            for (int i = 0; i < merged.veinSizes.length; i++) {
+                merged.veinSizes[i] = this.veinSizes[i] + other.veinSizes[i];
+            }
+            return merged;
+        }
+
+        private void print(PrintStream out, long elapsed, int threads) {
+            out.printf("Simulated %d chunks in %.2fs on %d threads%n", this.chunks, elapsed / 1e9, threads);
+            out.printf("  %.1f ns/chunk (per thread), %.1f ns/chunk (wall clock)%n",
+                    (double) this.nanos / this.chunks, (double) elapsed / this.chunks);
+            out.printf("  ores per chunk: mean %.3f, min %d, max %d%n", (double) this.ores / this.chunks, this.minOres, this.maxOres);
+
+            out.println("  ores by y level:");
+            for (int y = this.yLevels.length - 1; y >= 0; y--) {
+                if (this.yLevels[y] != 0) {
+                    out.printf("    y=%3d %10.4f/chunk%n", y, (double) this.yLevels[y] / this.chunks);
+                }
+            }
+
+            final long veins = Arrays.stream(this.veinSizes).sum();
+            out.println("  placed blocks per vein:");
+            for (int size = 0; size < this.veinSizes.length; size++) {
+                if (this.veinSizes[size] != 0) {
+                    out.printf("    %s%3d %8.4f%%%n", size == MAX_VEIN_SIZE ? ">=" : "  ", size, 100.0 * this.veinSizes[size] / veins);
+                }
+            }
+        }
+
+    }
+
+    /**
+     * A minimal open-addressed set of packed positions, cleared in constant time.
+     */
+    private static final class PositionSet {
+
+        private long[] keys = new long[1024];
+        private int[] stamps = new int[1024];
+        private int stamp = 1;
+        private int size;
+
+        private boolean add(long key) {
+            if (this.size * 2 >= this.keys.length) {
+                this.grow();
+            }
+
+            final int mask = this.keys.length - 1;
+            int index = (int) (key ^ key >>> 29) * 0x9E3779B9 & mask;
+            while (this.stamps[index] == this.stamp) {
+                if (this.keys[index] == key) {
+                    return false;
+                }
+                index = index + 1 & mask;
+            }
+            this.keys[index] = key;
+            this.stamps[index] = this.stamp;
+            this.size++;
+            return true;
+        }
+
+        private void grow() {
+            final long[] keys = this.keys;
+            final int[] stamps = this.stamps;
+            final int stamp = this.stamp;
+            this.keys = new long[keys.length << 1];
+            this.stamps = new int[keys.length << 1];
+            this.stamp = 1;
+            this.size = 0;
+            for (int i = 0; i < keys.length; i++) {
+                if (stamps[i] == stamp) {
+                    this.add(keys[i]);
+                }
+            }
+        }
+
+        private void clear() {
+            this.size = 0;
+            if (++this.stamp == 0) {
+                Arrays.fill(this.stamps, 0);
+                this.stamp = 1;
+            }
+        }
+
+    }
+
+}
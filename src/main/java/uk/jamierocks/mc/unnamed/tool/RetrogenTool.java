@@ -0,0 +1,378 @@
+/*
+ * This file is part of unnamed, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2017, Jamie Mansfield <https://www.jamierocks.uk/>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package uk.jamierocks.mc.unnamed.tool;
+
+import net.minecraft.nbt.CompressedStreamTools;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.nbt.NBTTagList;
+import net.minecraftforge.common.util.Constants;
+import uk.jamierocks.mc.unnamed.config.UnnamedConfig;
+import uk.jamierocks.mc.unnamed.world.ChunkSeeds;
+import uk.jamierocks.mc.unnamed.world.OreDefinition;
+import uk.jamierocks.mc.unnamed.world.OrePlan;
+import uk.jamierocks.mc.unnamed.world.OreRandom;
+import uk.jamierocks.mc.unnamed.world.OreVeinPlanner;
+import uk.jamierocks.mc.unnamed.world.ReplaceableStates;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * An offline tool to retro-generate Unnamed's ores in chunks that were generated before
+ * the mod was installed, working directly on a world's region files.
+ *
+ * The tool plans chunks exactly as the {@link uk.jamierocks.mc.unnamed.UnnamedWorldGenerator}
+ * would have when they were populated, with the same seeds, and with the ores, ore
+ * random and replaceable blocks read from the configuration the world is played with
+ * - by default {@code config/unnamed.cfg}, beside the world. So long as that is the
+ * configuration the ores were generated with, running the tool more than once - or on
+ * chunks that already have the ores - changes nothing. Overriding any of them with a
+ * flag plans different veins to those already in the world. Regions are processed in
+ * parallel, and only the chunks that are changed are written back.
+ *
+ * The ore dictionary isn't available offline, so replaceable blocks given as
+ * {@code ore:name} are skipped - give the blocks they stand for with {@code --replace}.
+ *
+ * Usage: {@code RetrogenTool <world> [--config file] [--dimension id] [--threads count]
+ * [--ore-random vanilla|xorshift] [--replace modid:name[:meta]]...
+ * [--ore modid:name[:meta],veinSize,veinCount,minHeight,maxHeight]...}
+ *
+ * The world must not be open in a running server whilst the tool runs.
+ */
+public final class RetrogenTool {
+
+    private static final String CONFIG_FILE = uk.jamierocks.mc.unnamed.util.Constants.MOD_ID + ".cfg";
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            System.err.println("Usage: RetrogenTool <world> [--config file] [--dimension id] [--threads count] "
+                    + "[--ore-random vanilla|xorshift] [--replace modid:name[:meta]]... "
+                    + "[--ore modid:name[:meta],veinSize,veinCount,minHeight,maxHeight]...");
+            System.exit(1);
+            return;
+        }
+
+        final Path world = Paths.get(args[0]).toAbsolutePath();
+        Path config = null;
+        int dimension = 0;
+        int threads = Runtime.getRuntime().availableProcessors();
+        String oreRandom = null;
+        final List<String> replaceArgs = new ArrayList<>();
+        final List<String> oreArgs = new ArrayList<>();
+        for (int i = 1; i < args.length; i++) {
+            switch (args[i]) {
+                case "--config":
+                    config = Paths.get(args[++i]);
+                    break;
+                case "--dimension":
+                    dimension = Integer.parseInt(args[++i]);
+                    break;
+                case "--threads":
+                    threads = Integer.parseInt(args[++i]);
+                    break;
+                case "--ore-random":
+                    oreRandom = args[++i];
+                    break;
+                case "--replace":
+                    replaceArgs.add(args[++i]);
+                    break;
+                case "--ore":
+                    oreArgs.add(args[++i]);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown argument " + args[i]);
+            }
+        }
+
+        // Read the configuration the world is played with
+        if (config != null || Files.exists(world.resolveSibling("config").resolve(CONFIG_FILE))) {
+            final Path file = config != null ? config : world.resolveSibling("config").resolve(CONFIG_FILE);
+            if (!Files.exists(file)) {
+                throw new IllegalArgumentException("The configuration " + file + " does not exist!");
+            }
+            UnnamedConfig.load(file.toFile());
+        } else {
+            System.out.println("No configuration found beside the world, using the defaults");
+        }
+
+        final List<OreDefinition> ores = new ArrayList<>();
+        for (final String ore : oreArgs) {
+            ores.add(parseOre(ore, dimension));
+        }
+        if (ores.isEmpty()) {
+            ores.addAll(UnnamedConfig.ores.isEmpty() ? Collections.singletonList(UnnamedConfig.TUNGSTEN_ORE) : UnnamedConfig.ores);
+        }
+        final List<String> targets = replaceArgs.isEmpty() ? Arrays.asList(UnnamedConfig.replaceableStates) : replaceArgs;
+
+        final NBTTagCompound level;
+        try (final InputStream in = Files.newInputStream(world.resolve("level.dat"))) {
+            level = CompressedStreamTools.readCompressed(in);
+        }
+        final Map<String, Integer> blockIds = readBlockIds(level);
+
+        final RetrogenTool tool = new RetrogenTool(level.getCompoundTag("Data").getLong("RandomSeed"), dimension, ores, targets,
+                oreRandom != null ? oreRandom : UnnamedConfig.oreRandom, blockIds);
+        final Path regions = dimension == 0 ? world.resolve("region") : world.resolve("DIM" + dimension).resolve("region");
+        final long start = System.nanoTime();
+        tool.run(regions, new ForkJoinPool(threads));
+
+        System.out.printf("Retro-generated %d chunks in %.1fs: placed %d blocks, wrote %d chunks, skipped %d placements in "
+                        + "ungenerated chunks%n", tool.chunks.sum(), (System.nanoTime() - start) / 1e9, tool.placed.sum(),
+                tool.written.sum(), tool.skipped.sum());
+    }
+
+    private static OreDefinition parseOre(String ore, int dimension) {
+        final String[] parts = ore.split(",");
+        if (parts.length != 5) {
+            throw new IllegalArgumentException("An ore must be given as modid:name[:meta],veinSize,veinCount,minHeight,maxHeight");
+        }
+        return new OreDefinition(parts[0], Integer.parseInt(parts[1]), Integer.parseInt(parts[2]), Integer.parseInt(parts[3]),
+                Integer.parseInt(parts[4]), new int[] { dimension });
+    }
+
+    private static Map<String, Integer> readBlockIds(NBTTagCompound level) {
+        final NBTTagList ids = level.getCompoundTag("FML").getCompoundTag("Registries").getCompoundTag("minecraft:blocks")
+                .getTagList("ids", Constants.NBT.TAG_COMPOUND);
+        final Map<String, Integer> blockIds = new HashMap<>();
+        for (int i = 0; i < ids.tagCount(); i++) {
+            blockIds.put(ids.getCompoundTagAt(i).getString("K"), ids.getCompoundTagAt(i).getInteger("V"));
+        }
+        return blockIds;
+    }
+
+    private static int resolveBlock(Map<String, Integer> blockIds, String block) {
+        final int metaIndex = metaIndex(block);
+        return resolveId(blockIds, metaIndex == -1 ? block : block.substring(0, metaIndex)) << 4
+                | (metaIndex == -1 ? 0 : Integer.parseInt(block.substring(metaIndex + 1)));
+    }
+
+    private static int resolveId(Map<String, Integer> blockIds, String name) {
+        final Integer id = blockIds.get(name.contains(":") ? name : "minecraft:" + name);
+        if (id == null) {
+            throw new IllegalArgumentException("The block " + name + " is not registered in this world!");
+        }
+        return id;
+    }
+
+    private static int metaIndex(String block) {
+        return block.indexOf(':') != block.lastIndexOf(':') ? block.lastIndexOf(':') : -1;
+    }
+
+    private final ChunkSeeds seeds;
+    private final String oreRandom;
+    private final List<OreDefinition> ores = new ArrayList<>();
+    private final int[] oreBlocks;
+    private final boolean[] replaceable = new boolean[1 << 16];
+    private final Map<Long, OrePlan> foreign = new ConcurrentHashMap<>();
+
+    private final LongAdder chunks = new LongAdder();
+    private final LongAdder placed = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+
+    private RetrogenTool(long worldSeed, int dimension, List<OreDefinition> ores, List<String> targets, String oreRandom,
+            Map<String, Integer> blockIds) {
+        this.seeds = new ChunkSeeds(worldSeed);
+        this.oreRandom = oreRandom;
+        // fail now, rather than in every region
+        OreRandom.of(oreRandom);
+
+        // the same jobs, in the same order, as the OreDispatchTable
+        for (final OreDefinition ore : ores) {
+            for (final int oreDimension : ore.getDimensions()) {
+                if (oreDimension == dimension) {
+                    this.ores.add(ore);
+                    break;
+                }
+            }
+        }
+        this.oreBlocks = new int[this.ores.size()];
+        for (int i = 0; i < this.ores.size(); i++) {
+            this.oreBlocks[i] = resolveBlock(blockIds, this.ores.get(i).getBlock());
+        }
+
+        // the same targets as ReplaceableStates, bar the ore dictionary
+        for (final String target : targets) {
+            if (target.startsWith(ReplaceableStates.ORE_PREFIX)) {
+                System.err.println("Skipping the replaceable blocks " + target + ", the ore dictionary isn't available offline");
+                continue;
+            }
+            final int metaIndex = metaIndex(target);
+            if (metaIndex == -1) {
+                final int id = resolveId(blockIds, target);
+                for (int meta = 0; meta < 16; meta++) {
+                    this.replaceable[id << 4 | meta] = true;
+                }
+            } else {
+                this.replaceable[resolveBlock(blockIds, target)] = true;
+            }
+        }
+    }
+
+    private void run(Path regions, ForkJoinPool pool) throws IOException, InterruptedException {
+        final List<Path> files = new ArrayList<>();
+        try (final DirectoryStream<Path> stream = Files.newDirectoryStream(regions, "r.*.*.mca")) {
+            stream.forEach(files::add);
+        }
+
+        // Plan and write every chunk, holding back the placements that fall in other regions
+        final List<ForkJoinTask<?>> tasks = new ArrayList<>();
+        for (final Path file : files) {
+            tasks.add(ForkJoinTask.adapt(() -> this.retrogen(file, null)));
+        }
+        pool.submit(() -> ForkJoinTask.invokeAll(tasks)).join();
+
+        // Then write the placements that fell in other regions
+        tasks.clear();
+        for (final Map.Entry<Long, OrePlan> entry : this.foreign.entrySet()) {
+            final int regionX = (int) (long) entry.getKey();
+            final int regionZ = (int) (entry.getKey() >> 32);
+            final Path file = regions.resolve("r." + regionX + "." + regionZ + ".mca");
+            if (Files.exists(file)) {
+                tasks.add(ForkJoinTask.adapt(() -> this.retrogen(file, entry.getValue())));
+            } else {
+                this.skipped.add(entry.getValue().size());
+            }
+        }
+        pool.submit(() -> ForkJoinTask.invokeAll(tasks)).join();
+        pool.shutdown();
+    }
+
+    /**
+     * Retro-generates the given region, or - if given a plan - writes the plan into it.
+     *
+     * @param file The region file
+     * @param foreignPlan The placements that fell into the region from others, or {@code null}
+     */
+    private void retrogen(Path file, OrePlan foreignPlan) {
+        final String[] name = file.getFileName().toString().split("\\.");
+        final int regionX = Integer.parseInt(name[1]);
+        final int regionZ = Integer.parseInt(name[2]);
+
+        try (final AnvilRegion region = new AnvilRegion(file)) {
+            final AnvilChunk[] chunks = new AnvilChunk[AnvilRegion.CHUNKS * AnvilRegion.CHUNKS];
+            final boolean[] read = new boolean[chunks.length];
+
+            if (foreignPlan != null) {
+                this.write(foreignPlan, regionX, regionZ, region, chunks, read);
+            } else {
+                final OrePlan plan = new OrePlan();
+                final OreRandom oreRandom = OreRandom.of(this.oreRandom);
+                for (int index = 0; index < chunks.length; index++) {
+                    final AnvilChunk chunk = this.getChunk(region, chunks, read, index);
+                    if (chunk == null || !chunk.isPopulated()) {
+                        continue;
+                    }
+
+                    final int chunkX = (regionX << 5) + (index & 31);
+                    final int chunkZ = (regionZ << 5) + (index >> 5);
+                    oreRandom.seed(new Random(this.seeds.forChunk(chunkX, chunkZ)));
+                    for (int i = 0; i < this.ores.size(); i++) {
+                        final OreDefinition ore = this.ores.get(i);
+                        OreVeinPlanner.planStandardOre(oreRandom, chunkX << 4, chunkZ << 4, i, ore.getVeinSize(), ore.getVeinCount(),
+                                ore.getMinHeight(), ore.getMaxHeight(), plan);
+                    }
+                    this.write(plan, regionX, regionZ, region, chunks, read);
+                    plan.clear();
+                    this.chunks.increment();
+                }
+            }
+
+            for (int index = 0; index < chunks.length; index++) {
+                if (chunks[index] != null && chunks[index].isModified()) {
+                    region.write(index, chunks[index].getRoot());
+                    this.written.increment();
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to retro-generate " + file, ex);
+        }
+    }
+
+    private void write(OrePlan plan, int regionX, int regionZ, AnvilRegion region, AnvilChunk[] chunks, boolean[] read)
+            throws IOException {
+        for (int i = 0; i < plan.size(); i++) {
+            final long packed = plan.getPosition(i);
+            final int x = OrePlan.unpackX(packed);
+            final int y = OrePlan.unpackY(packed);
+            final int z = OrePlan.unpackZ(packed);
+            if (y < 0 || y >= 256) {
+                continue;
+            }
+
+            final int chunkX = x >> 4;
+            final int chunkZ = z >> 4;
+            if (chunkX >> 5 != regionX || chunkZ >> 5 != regionZ) {
+                final long key = (long) (chunkX >> 5) & 0xFFFFFFFFL | (long) (chunkZ >> 5) << 32;
+                final int ore = plan.getOre(i);
+                this.foreign.compute(key, (k, foreignPlan) -> {
+                    final OrePlan result = foreignPlan != null ? foreignPlan : new OrePlan();
+                    result.add(x, y, z, ore);
+                    return result;
+                });
+                continue;
+            }
+
+            final AnvilChunk chunk = this.getChunk(region, chunks, read, AnvilRegion.index(chunkX, chunkZ));
+            if (chunk == null) {
+                this.skipped.increment();
+                continue;
+            }
+
+            final int block = chunk.getBlock(x & 15, y, z & 15);
+            if (block != -1 && this.replaceable[block]) {
+                chunk.setBlock(x & 15, y, z & 15, this.oreBlocks[plan.getOre(i)]);
+                this.placed.increment();
+            }
+        }
+    }
+
+    private AnvilChunk getChunk(AnvilRegion region, AnvilChunk[] chunks, boolean[] read, int index) throws IOException {
+        if (!read[index]) {
+            final NBTTagCompound root = region.read(index);
+            chunks[index] = root != null ? new AnvilChunk(root) : null;
+            read[index] = true;
+        }
+        return chunks[index];
+    }
+
+}
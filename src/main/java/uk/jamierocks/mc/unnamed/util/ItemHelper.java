@@ -26,6 +26,8 @@
 package uk.jamierocks.mc.unnamed.util;
 
 import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraft.util.ResourceLocation;
 
 /**
  * A utility class for methods pertaining to items.
@@ -53,6 +55,29 @@ public final class ItemHelper {
         item.setRegistryName(itemId);
     }
 
+    /**
+     * Creates a stack of the given item, named as {@code modid:name} or {@code modid:name:meta}.
+     *
+     * @param name The name of the item
+     * @param count The size of the stack
+     * @return The item stack
+     */
+    public static ItemStack getStack(String name, int count) {
+        String itemName = name;
+        int meta = 0;
+        final int separator = name.lastIndexOf(':');
+        if (separator != -1 && separator != name.indexOf(':')) {
+            itemName = name.substring(0, separator);
+            meta = Integer.parseInt(name.substring(separator + 1));
+        }
+
+        final Item item = Item.REGISTRY.getObject(new ResourceLocation(itemName));
+        if (item == null) {
+            throw new IllegalArgumentException("The item " + itemName + " is not registered!");
+        }
+        return new ItemStack(item, count, meta);
+    }
+
     private ItemHelper() {
     }
 
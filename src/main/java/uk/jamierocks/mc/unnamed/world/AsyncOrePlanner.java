@@ -0,0 +1,186 @@
+/*
+ * This file is part of unnamed, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2017, Jamie Mansfield <https://www.jamierocks.uk/>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package uk.jamierocks.mc.unnamed.world;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraftforge.event.world.ChunkEvent;
+import net.minecraftforge.event.world.WorldEvent;
+import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.annotation.Nullable;
+
+/**
+ * Plans the ore placements of chunks on a pool of worker threads, ahead of the chunks
+ * being populated - leaving the server thread to only write the planned placements.
+ *
+ * Chunks are planned as soon as they are loaded without having been populated, using
+ * the same seed as Forge would give the {@link ChunkOrePlanner} during population, so
+ * the planned placements are identical to those planned serially.
+ *
+ * With the exception of the planning itself, everything here happens on the server thread.
+ */
+public final class AsyncOrePlanner {
+
+    /**
+     * The maximum number of plans kept for a single world, to bound the memory used
+     * should chunks be loaded far faster than they are populated.
+     */
+    private static final int MAX_PENDING = 4096;
+
+    private static final Logger LOGGER = LogManager.getLogger("Unnamed Ore Planner");
+
+    private final ChunkOrePlanner planner;
+    private final ExecutorService executor;
+    private final Map<World, Map<Long, Future<OrePlan>>> pending = new WeakHashMap<>();
+    private final Map<World, ChunkSeeds> seeds = new WeakHashMap<>();
+    // the worlds a failed plan has been logged for, so a broken planner doesn't flood the log
+    private final Set<World> failed = Collections.newSetFromMap(new WeakHashMap<>());
+
+    public AsyncOrePlanner(ChunkOrePlanner planner, int threads) {
+        this.planner = planner;
+        this.executor = Executors.newFixedThreadPool(threads, new ThreadFactoryBuilder()
+                .setNameFormat("Unnamed Ore Planner #%d")
+                .setDaemon(true)
+                .build());
+    }
+
+    /**
+     * Starts planning the given chunk, if it isn't already being planned.
+     *
+     * @param world The world
+     * @param chunkX The x coordinate of the chunk
+     * @param chunkZ The z coordinate of the chunk
+     */
+    public void prefetch(World world, int chunkX, int chunkZ) {
+        final int dimension = world.provider.getDimension();
+        if (!this.planner.hasWork(dimension)) {
+            return;
+        }
+
+        final Map<Long, Future<OrePlan>> pending = this.pending.computeIfAbsent(world, w -> new HashMap<>());
+        final Long key = key(chunkX, chunkZ);
+        if (pending.size() >= MAX_PENDING || pending.containsKey(key)) {
+            return;
+        }
+
+        final long seed = this.seeds.computeIfAbsent(world, w -> new ChunkSeeds(w.getSeed())).forChunk(chunkX, chunkZ);
+        pending.put(key, this.executor.submit(() -> {
+            final OrePlan plan = new OrePlan();
+            this.planner.plan(new Random(seed), dimension, chunkX, chunkZ, plan);
+            return plan;
+        }));
+    }
+
+    /**
+     * Takes the plan for the given chunk, waiting for it to finish if needs be.
+     * If the chunk hasn't been planned, {@code null} is returned and it should
+     * be planned serially.
+     *
+     * @param world The world
+     * @param chunkX The x coordinate of the chunk
+     * @param chunkZ The z coordinate of the chunk
+     * @return The plan, or {@code null}
+     */
+    @Nullable
+    public OrePlan take(World world, int chunkX, int chunkZ) {
+        final Map<Long, Future<OrePlan>> pending = this.pending.get(world);
+        if (pending == null) {
+            return null;
+        }
+
+        final Future<OrePlan> future = pending.remove(key(chunkX, chunkZ));
+        if (future == null) {
+            return null;
+        }
+
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException ex) {
+            if (this.failed.add(world)) {
+                LOGGER.warn("Failed to plan chunk ({}, {}) in dimension {} off-thread, planning serially instead."
+                        + " Further failures in this world won't be logged.", chunkX, chunkZ, world.provider.getDimension(),
+                        ex.getCause());
+            }
+            // the chunk will just be planned serially
+            return null;
+        }
+    }
+
+    @SubscribeEvent
+    public void onChunkLoad(ChunkEvent.Load event) {
+        final Chunk chunk = event.getChunk();
+        if (event.getWorld().isRemote || chunk.isTerrainPopulated()) {
+            return;
+        }
+        this.prefetch(event.getWorld(), chunk.xPosition, chunk.zPosition);
+    }
+
+    @SubscribeEvent
+    public void onChunkUnload(ChunkEvent.Unload event) {
+        final Map<Long, Future<OrePlan>> pending = this.pending.get(event.getWorld());
+        if (pending == null) {
+            return;
+        }
+
+        final Future<OrePlan> future = pending.remove(key(event.getChunk().xPosition, event.getChunk().zPosition));
+        if (future != null) {
+            future.cancel(false);
+        }
+    }
+
+    @SubscribeEvent
+    public void onWorldUnload(WorldEvent.Unload event) {
+        final Map<Long, Future<OrePlan>> pending = this.pending.remove(event.getWorld());
+        if (pending != null) {
+            pending.values().forEach(future -> future.cancel(false));
+        }
+        this.seeds.remove(event.getWorld());
+        this.failed.remove(event.getWorld());
+    }
+
+    private static Long key(int chunkX, int chunkZ) {
+        return (long) chunkX & 0xFFFFFFFFL | ((long) chunkZ & 0xFFFFFFFFL) << 32;
+    }
+
+}
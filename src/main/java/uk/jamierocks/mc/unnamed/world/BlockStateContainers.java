@@ -0,0 +1,99 @@
+/*
+ * This file is part of unnamed, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2017, Jamie Mansfield <https://www.jamierocks.uk/>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package uk.jamierocks.mc.unnamed.world;
+
+import net.minecraft.util.BitArray;
+import net.minecraft.world.chunk.BlockStateContainer;
+import net.minecraft.world.chunk.IBlockStatePalette;
+import net.minecraftforge.fml.relauncher.ReflectionHelper;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+
+import javax.annotation.Nullable;
+
+/**
+ * Access to the palette and storage of a {@link BlockStateContainer}, which vanilla
+ * keeps private, so the world can be read by palette id rather than by state.
+ */
+final class BlockStateContainers {
+
+    private static final MethodHandle PALETTE_GETTER = findGetter("palette", "field_186022_c");
+    private static final MethodHandle STORAGE_GETTER = findGetter("storage", "field_186021_b");
+
+    /**
+     * Gets whether the palette and storage of containers can be read.
+     *
+     * @return {@code true} if they can be read
+     */
+    static boolean isSupported() {
+        return PALETTE_GETTER != null && STORAGE_GETTER != null;
+    }
+
+    /**
+     * Gets the palette of the given container.
+     *
+     * @param data The container
+     * @return The palette, or {@code null} if it can't be read
+     */
+    @Nullable
+    static IBlockStatePalette getPalette(BlockStateContainer data) {
+        try {
+            return PALETTE_GETTER != null ? (IBlockStatePalette) PALETTE_GETTER.invokeExact(data) : null;
+        } catch (Throwable ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Gets the storage of the given container, holding the palette id of each
+     * position, indexed by {@code y << 8 | z << 4 | x}.
+     *
+     * @param data The container
+     * @return The storage, or {@code null} if it can't be read
+     */
+    @Nullable
+    static BitArray getStorage(BlockStateContainer data) {
+        try {
+            return STORAGE_GETTER != null ? (BitArray) STORAGE_GETTER.invokeExact(data) : null;
+        } catch (Throwable ex) {
+            return null;
+        }
+    }
+
+    @Nullable
+    private static MethodHandle findGetter(String name, String srgName) {
+        try {
+            return MethodHandles.lookup().unreflectGetter(ReflectionHelper.findField(BlockStateContainer.class, name, srgName));
+        } catch (ReflectionHelper.UnableToFindFieldException | IllegalAccessException ex) {
+            return null;
+        }
+    }
+
+    private BlockStateContainers() {
+    }
+
+}
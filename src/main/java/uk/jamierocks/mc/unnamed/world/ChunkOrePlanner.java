@@ -0,0 +1,55 @@
+/*
+ * This file is part of unnamed, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2017, Jamie Mansfield <https://www.jamierocks.uk/>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package uk.jamierocks.mc.unnamed.world;
+
+import java.util.Random;
+
+/**
+ * Plans the ore placements for a chunk, without touching the world - making it
+ * safe to call from any thread.
+ */
+public interface ChunkOrePlanner {
+
+    /**
+     * Gets whether any ore is generated in the given dimension.
+     *
+     * @param dimension The dimension id
+     * @return {@code true} if there is work to be done in the dimension
+     */
+    boolean hasWork(int dimension);
+
+    /**
+     * Plans the ore placements for the given chunk.
+     *
+     * @param random The random, seeded for the chunk
+     * @param dimension The dimension id
+     * @param chunkX The x coordinate of the chunk
+     * @param chunkZ The z coordinate of the chunk
+     * @param plan The plan to add to
+     */
+    void plan(Random random, int dimension, int chunkX, int chunkZ, OrePlan plan);
+
+}
@@ -0,0 +1,68 @@
+/*
+ * This file is part of unnamed, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2017, Jamie Mansfield <https://www.jamierocks.uk/>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package uk.jamierocks.mc.unnamed.world;
+
+import java.util.Random;
+
+/**
+ * Derives the seeds that Forge uses for {@link net.minecraftforge.fml.common.IWorldGenerator}s,
+ * so that chunks can be planned away from {@code GameRegistry#generateWorld}.
+ */
+public final class ChunkSeeds {
+
+    private final long worldSeed;
+    private final long xSeed;
+    private final long zSeed;
+
+    // adapted from GameRegistry#generateWorld(int, int, World, IChunkGenerator, IChunkProvider)
+    public ChunkSeeds(long worldSeed) {
+        final Random random = new Random(worldSeed);
+        this.worldSeed = worldSeed;
+        this.xSeed = random.nextLong() >> 2 + 1L;
+        this.zSeed = random.nextLong() >> 2 + 1L;
+    }
+
+    /**
+     * Gets the world seed these seeds were derived from.
+     *
+     * @return The world seed
+     */
+    public long getWorldSeed() {
+        return this.worldSeed;
+    }
+
+    /**
+     * Gets the seed given to world generators for the given chunk.
+     *
+     * @param chunkX The x coordinate of the chunk
+     * @param chunkZ The z coordinate of the chunk
+     * @return The chunk seed
+     */
+    public long forChunk(int chunkX, int chunkZ) {
+        return (this.xSeed * chunkX + this.zSeed * chunkZ) ^ this.worldSeed;
+    }
+
+}
@@ -0,0 +1,85 @@
+/*
+ * This file is part of unnamed, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2017, Jamie Mansfield <https://www.jamierocks.uk/>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package uk.jamierocks.mc.unnamed.world;
+
+/**
+ * A definition of an ore to be generated, as it is configured.
+ *
+ * Definitions are compiled into {@link OreJob}s by the {@link OreDispatchTable}.
+ */
+public final class OreDefinition {
+
+    private final String block;
+    private final int veinSize;
+    private final int veinCount;
+    private final int minHeight;
+    private final int maxHeight;
+    private final int[] dimensions;
+
+    /**
+     * Creates an ore definition.
+     *
+     * @param block The block to be generated, as {@code modid:name} or {@code modid:name:meta}
+     * @param veinSize The number of blocks in each vein
+     * @param veinCount The number of veins in each chunk
+     * @param minHeight The minimum height
+     * @param maxHeight The maximum height
+     * @param dimensions The ids of the dimensions the ore is generated in
+     */
+    public OreDefinition(String block, int veinSize, int veinCount, int minHeight, int maxHeight, int[] dimensions) {
+        this.block = block;
+        this.veinSize = veinSize;
+        this.veinCount = veinCount;
+        this.minHeight = minHeight;
+        this.maxHeight = maxHeight;
+        this.dimensions = dimensions.clone();
+    }
+
+    public String getBlock() {
+        return this.block;
+    }
+
+    public int getVeinSize() {
+        return this.veinSize;
+    }
+
+    public int getVeinCount() {
+        return this.veinCount;
+    }
+
+    public int getMinHeight() {
+        return this.minHeight;
+    }
+
+    public int getMaxHeight() {
+        return this.maxHeight;
+    }
+
+    public int[] getDimensions() {
+        return this.dimensions.clone();
+    }
+
+}
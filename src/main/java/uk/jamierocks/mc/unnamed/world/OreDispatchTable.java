@@ -0,0 +1,163 @@
+/*
+ * This file is part of unnamed, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2017, Jamie Mansfield <https://www.jamierocks.uk/>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package uk.jamierocks.mc.unnamed.world;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import net.minecraft.block.Block;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.util.ResourceLocation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * A table of the {@link OreJob}s to be run in each dimension, compiled once from
+ * the configured {@link OreDefinition}s.
+ *
+ * The jobs of dimensions with small ids, as vanilla's and most mods' are, are indexed
+ * directly by dimension id, so that dimensions with no ores to generate cost no more
+ * than a bounds check. The jobs of any other dimension are found by a binary search
+ * of the sorted dimension ids, so scattered or very large ids don't inflate the table.
+ */
+public final class OreDispatchTable {
+
+    private static final OreJob[] NO_JOBS = new OreJob[0];
+
+    // the range of dimension ids indexed directly
+    private static final int DENSE_MIN = -128;
+    private static final int DENSE_MAX = 127;
+
+    /**
+     * Compiles the given ore definitions into a dispatch table. This must be called once
+     * the blocks have been registered.
+     *
+     * @param definitions The ore definitions
+     * @return The dispatch table
+     */
+    public static OreDispatchTable compile(List<OreDefinition> definitions) {
+        final IBlockState[] ores = new IBlockState[definitions.size()];
+        final Map<Integer, List<OreJob>> jobs = new TreeMap<>();
+        for (int i = 0; i < definitions.size(); i++) {
+            final OreDefinition definition = definitions.get(i);
+            checkArgument(definition.getVeinSize() > 0, "The vein size of %s must be positive!", definition.getBlock());
+            checkArgument(definition.getVeinCount() >= 0, "The vein count of %s must not be negative!", definition.getBlock());
+
+            ores[i] = resolveState(definition.getBlock());
+            final OreJob job = new OreJob(i, ores[i], definition.getVeinSize(), definition.getVeinCount(),
+                    definition.getMinHeight(), definition.getMaxHeight());
+            for (final int dimension : definition.getDimensions()) {
+                final List<OreJob> dimensionJobs = jobs.computeIfAbsent(dimension, d -> new ArrayList<>());
+                if (!dimensionJobs.contains(job)) {
+                    dimensionJobs.add(job);
+                }
+            }
+        }
+
+        final OreJob[][] dense = new OreJob[DENSE_MAX - DENSE_MIN + 1][];
+        Arrays.fill(dense, NO_JOBS);
+        int sparseCount = 0;
+        for (final Map.Entry<Integer, List<OreJob>> entry : jobs.entrySet()) {
+            if (isDense(entry.getKey())) {
+                dense[entry.getKey() - DENSE_MIN] = entry.getValue().toArray(new OreJob[0]);
+            } else {
+                sparseCount++;
+            }
+        }
+
+        // the map is sorted, so the sparse dimensions are too
+        final int[] sparseDimensions = new int[sparseCount];
+        final OreJob[][] sparse = new OreJob[sparseCount][];
+        int i = 0;
+        for (final Map.Entry<Integer, List<OreJob>> entry : jobs.entrySet()) {
+            if (!isDense(entry.getKey())) {
+                sparseDimensions[i] = entry.getKey();
+                sparse[i++] = entry.getValue().toArray(new OreJob[0]);
+            }
+        }
+        return new OreDispatchTable(ores, dense, sparseDimensions, sparse);
+    }
+
+    private static boolean isDense(int dimension) {
+        return dimension >= DENSE_MIN && dimension <= DENSE_MAX;
+    }
+
+    /**
+     * Resolves a block state from the given string, in the form of {@code modid:name}
+     * or {@code modid:name:meta}.
+     *
+     * @param state The block state, as a string
+     * @return The block state
+     */
+    @SuppressWarnings("deprecation")
+    static IBlockState resolveState(String state) {
+        final int metaIndex = state.indexOf(':') != state.lastIndexOf(':') ? state.lastIndexOf(':') : -1;
+        final ResourceLocation name = new ResourceLocation(metaIndex == -1 ? state : state.substring(0, metaIndex));
+        checkArgument(Block.REGISTRY.containsKey(name), "The block %s does not exist!", name);
+
+        final Block block = Block.REGISTRY.getObject(name);
+        return metaIndex == -1 ? block.getDefaultState() : block.getStateFromMeta(Integer.parseInt(state.substring(metaIndex + 1)));
+    }
+
+    private final IBlockState[] ores;
+    private final OreJob[][] dense;
+    private final int[] sparseDimensions;
+    private final OreJob[][] sparse;
+
+    private OreDispatchTable(IBlockState[] ores, OreJob[][] dense, int[] sparseDimensions, OreJob[][] sparse) {
+        this.ores = ores;
+        this.dense = dense;
+        this.sparseDimensions = sparseDimensions;
+        this.sparse = sparse;
+    }
+
+    /**
+     * Gets the jobs to be run in the given dimension.
+     *
+     * @param dimension The dimension id
+     * @return The jobs, which are empty if there are none
+     */
+    public OreJob[] getJobs(int dimension) {
+        if (isDense(dimension)) {
+            return this.dense[dimension - DENSE_MIN];
+        }
+        final int index = Arrays.binarySearch(this.sparseDimensions, dimension);
+        return index >= 0 ? this.sparse[index] : NO_JOBS;
+    }
+
+    /**
+     * Gets the ore states, by ore index.
+     *
+     * @return The ore states
+     */
+    public IBlockState[] getOres() {
+        return this.ores;
+    }
+
+}
@@ -0,0 +1,167 @@
+/*
+ * This file is part of unnamed, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2017, Jamie Mansfield <https://www.jamierocks.uk/>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package uk.jamierocks.mc.unnamed.world;
+
+import java.util.Arrays;
+
+/**
+ * A reusable buffer of planned ore placements, filled by the {@link OreVeinPlanner}
+ * and consumed by the {@link OreVeinWriter}.
+ *
+ * Positions are packed into longs using the same layout as
+ * {@link net.minecraft.util.math.BlockPos#toLong()}, so that planning a chunk
+ * does not allocate a {@link net.minecraft.util.math.BlockPos} per block.
+ */
+public final class OrePlan {
+
+    private static final int NUM_X_BITS = 26;
+    private static final int NUM_Z_BITS = NUM_X_BITS;
+    private static final int NUM_Y_BITS = 64 - NUM_X_BITS - NUM_Z_BITS;
+    private static final int Y_SHIFT = NUM_Z_BITS;
+    private static final int X_SHIFT = Y_SHIFT + NUM_Y_BITS;
+    private static final long X_MASK = (1L << NUM_X_BITS) - 1L;
+    private static final long Y_MASK = (1L << NUM_Y_BITS) - 1L;
+    private static final long Z_MASK = (1L << NUM_Z_BITS) - 1L;
+
+    private long[] positions;
+    private int[] ores;
+    private int size;
+    private int[] veinEnds = new int[8];
+    private int veins;
+
+    public OrePlan() {
+        this(64);
+    }
+
+    public OrePlan(int capacity) {
+        this.positions = new long[capacity];
+        this.ores = new int[capacity];
+    }
+
+    /**
+     * Adds a planned placement of the given ore at the given position.
+     *
+     * @param x The x coordinate
+     * @param y The y coordinate
+     * @param z The z coordinate
+     * @param ore The index of the ore to be placed
+     */
+    public void add(int x, int y, int z, int ore) {
+        if (this.size == this.positions.length) {
+            final int capacity = this.positions.length << 1;
+            this.positions = Arrays.copyOf(this.positions, capacity);
+            this.ores = Arrays.copyOf(this.ores, capacity);
+        }
+        this.positions[this.size] = pack(x, y, z);
+        this.ores[this.size] = ore;
+        this.size++;
+    }
+
+    /**
+     * Marks the end of a vein, so that placements can be attributed to the vein
+     * that planned them.
+     */
+    public void endVein() {
+        if (this.veins == this.veinEnds.length) {
+            this.veinEnds = Arrays.copyOf(this.veinEnds, this.veins << 1);
+        }
+        this.veinEnds[this.veins++] = this.size;
+    }
+
+    /**
+     * Gets the number of planned veins.
+     *
+     * @return The number of veins
+     */
+    public int getVeinCount() {
+        return this.veins;
+    }
+
+    /**
+     * Gets the index after the last placement of the vein at the given index.
+     * The vein's placements start at the end of the previous vein.
+     *
+     * @param vein The index of the vein
+     * @return The end of the vein
+     */
+    public int getVeinEnd(int vein) {
+        return this.veinEnds[vein];
+    }
+
+    /**
+     * Gets the number of planned placements.
+     *
+     * @return The size
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Gets the packed position of the planned placement at the given index.
+     *
+     * @param index The index
+     * @return The packed position
+     */
+    public long getPosition(int index) {
+        return this.positions[index];
+    }
+
+    /**
+     * Gets the ore index of the planned placement at the given index.
+     *
+     * @param index The index
+     * @return The ore index
+     */
+    public int getOre(int index) {
+        return this.ores[index];
+    }
+
+    /**
+     * Clears the plan, keeping its backing arrays for reuse.
+     */
+    public void clear() {
+        this.size = 0;
+        this.veins = 0;
+    }
+
+    public static long pack(int x, int y, int z) {
+        return ((long) x & X_MASK) << X_SHIFT | ((long) y & Y_MASK) << Y_SHIFT | ((long) z & Z_MASK);
+    }
+
+    public static int unpackX(long packed) {
+        return (int) (packed << (64 - X_SHIFT - NUM_X_BITS) >> (64 - NUM_X_BITS));
+    }
+
+    public static int unpackY(long packed) {
+        return (int) (packed << (64 - Y_SHIFT - NUM_Y_BITS) >> (64 - NUM_Y_BITS));
+    }
+
+    public static int unpackZ(long packed) {
+        return (int) (packed << (64 - NUM_Z_BITS) >> (64 - NUM_Z_BITS));
+    }
+
+}
@@ -0,0 +1,99 @@
+/*
+ * This file is part of unnamed, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2017, Jamie Mansfield <https://www.jamierocks.uk/>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package uk.jamierocks.mc.unnamed.world;
+
+import java.util.Random;
+
+/**
+ * The source of randomness used when planning ore veins.
+ *
+ * An ore random is reseeded for every chunk, from the {@link Random} Forge gives
+ * world generators, and so a single instance can be reused for every chunk
+ * planned on a thread.
+ */
+public interface OreRandom {
+
+    /**
+     * Creates an ore random that draws directly from the chunk's {@link Random},
+     * giving exactly the same veins as vanilla's ore generation.
+     *
+     * @return The ore random
+     */
+    static OreRandom vanilla() {
+        return new VanillaOreRandom();
+    }
+
+    /**
+     * Creates an ore random that uses an unsynchronised xorshift generator, seeded
+     * from the chunk's {@link Random}. Worlds are still reproducible from their seed,
+     * but the veins differ from those of {@link #vanilla()}.
+     *
+     * @return The ore random
+     */
+    static OreRandom xorShift() {
+        return new XorShiftOreRandom();
+    }
+
+    /**
+     * Gets the ore random of the given name, as used in the configuration.
+     *
+     * @param name The name, either {@code vanilla} or {@code xorshift}
+     * @return The ore random
+     */
+    static OreRandom of(String name) {
+        switch (name) {
+            case "vanilla":
+                return vanilla();
+            case "xorshift":
+                return xorShift();
+            default:
+                throw new IllegalArgumentException("Unknown ore random " + name + "!");
+        }
+    }
+
+    /**
+     * Reseeds the ore random for a chunk.
+     *
+     * @param chunkRandom The random Forge gives world generators for the chunk
+     */
+    void seed(Random chunkRandom);
+
+    /**
+     * @see Random#nextInt(int)
+     */
+    int nextInt(int bound);
+
+    /**
+     * @see Random#nextFloat()
+     */
+    float nextFloat();
+
+    /**
+     * @see Random#nextDouble()
+     */
+    double nextDouble();
+
+}
@@ -0,0 +1,190 @@
+/*
+ * This file is part of unnamed, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2017, Jamie Mansfield <https://www.jamierocks.uk/>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package uk.jamierocks.mc.unnamed.world;
+
+import com.google.common.base.Predicate;
+import net.minecraft.block.Block;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.nbt.NBTTagCompound;
+import net.minecraft.nbt.NBTTagList;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.storage.MapStorage;
+import net.minecraft.world.storage.WorldSavedData;
+import net.minecraftforge.common.util.Constants;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.annotation.Nullable;
+
+/**
+ * A buffer of ore placements that fell into chunks that weren't loaded when their
+ * vein was generated, kept with the world's save data.
+ *
+ * Rather than loading - and potentially generating - the chunk to place the ore,
+ * which would cascade into further chunks being generated, the placements are
+ * spilled into this buffer and written once the chunk is populated (or loaded,
+ * if it had already been populated).
+ */
+public final class OreSpillData extends WorldSavedData {
+
+    private static final String NAME = "unnamed_ore_spill";
+
+    /**
+     * Gets the spill buffer of the given world, creating it if needs be.
+     *
+     * @param world The world
+     * @return The spill buffer
+     */
+    public static OreSpillData get(World world) {
+        final MapStorage storage = world.getPerWorldStorage();
+        OreSpillData data = (OreSpillData) storage.getOrLoadData(OreSpillData.class, NAME);
+        if (data == null) {
+            data = new OreSpillData(NAME);
+            storage.setData(NAME, data);
+        }
+        return data;
+    }
+
+    /**
+     * The spilled placements, by chunk. Each placement is packed into an int, holding
+     * the state id in the upper 16 bits and the position within the chunk in the lower.
+     */
+    private final Map<ChunkPos, Spill> spills = new HashMap<>();
+
+    // this is needed for MapStorage
+    public OreSpillData(String name) {
+        super(name);
+    }
+
+    /**
+     * Spills a placement of the given ore into the given chunk.
+     *
+     * @param chunkX The x coordinate of the chunk
+     * @param chunkZ The z coordinate of the chunk
+     * @param x The x coordinate of the block
+     * @param y The y coordinate of the block
+     * @param z The z coordinate of the block
+     * @param ore The ore
+     */
+    public void spill(int chunkX, int chunkZ, int x, int y, int z, IBlockState ore) {
+        this.spills.computeIfAbsent(new ChunkPos(chunkX, chunkZ), chunkPos -> new Spill(new int[16], 0))
+                .add(Block.getStateId(ore) << 16 | (y & 255) << 8 | (z & 15) << 4 | (x & 15));
+        this.markDirty();
+    }
+
+    /**
+     * Gets whether there are any placements spilled into the given chunk.
+     *
+     * @param chunkX The x coordinate of the chunk
+     * @param chunkZ The z coordinate of the chunk
+     * @return {@code true} if there are spilled placements
+     */
+    public boolean hasSpilled(int chunkX, int chunkZ) {
+        return !this.spills.isEmpty() && this.spills.containsKey(new ChunkPos(chunkX, chunkZ));
+    }
+
+    /**
+     * Writes, and forgets, all of the placements spilled into the given chunk.
+     *
+     * @param world The world
+     * @param chunk The chunk
+     * @param target The predicate for the states the ores may replace
+     * @param stats The statistics to record to, or {@code null}
+     * @return The number of blocks placed
+     */
+    public int flush(World world, Chunk chunk, Predicate<IBlockState> target, @Nullable OreWriteStats stats) {
+        if (this.spills.isEmpty()) {
+            return 0;
+        }
+
+        final Spill spill = this.spills.remove(new ChunkPos(chunk.xPosition, chunk.zPosition));
+        if (spill == null) {
+            return 0;
+        }
+        this.markDirty();
+
+        final int blockX = chunk.xPosition << 4;
+        final int blockZ = chunk.zPosition << 4;
+        final OrePlan plan = new OrePlan(spill.size);
+        final IBlockState[] ores = new IBlockState[spill.size];
+        for (int i = 0; i < spill.size; i++) {
+            final int placement = spill.placements[i];
+            plan.add(blockX + (placement & 15), placement >> 8 & 255, blockZ + (placement >> 4 & 15), i);
+            ores[i] = Block.getStateById(placement >>> 16);
+        }
+        return OreVeinWriter.write(world, chunk, plan, ores, target, stats);
+    }
+
+    @Override
+    public void readFromNBT(NBTTagCompound compound) {
+        this.spills.clear();
+
+        final NBTTagList chunks = compound.getTagList("Chunks", Constants.NBT.TAG_COMPOUND);
+        for (int i = 0; i < chunks.tagCount(); i++) {
+            final NBTTagCompound chunk = chunks.getCompoundTagAt(i);
+            final int[] placements = chunk.getIntArray("Placements");
+            this.spills.put(new ChunkPos(chunk.getInteger("X"), chunk.getInteger("Z")), new Spill(placements, placements.length));
+        }
+    }
+
+    @Override
+    public NBTTagCompound writeToNBT(NBTTagCompound compound) {
+        final NBTTagList chunks = new NBTTagList();
+        for (final Map.Entry<ChunkPos, Spill> entry : this.spills.entrySet()) {
+            final NBTTagCompound chunk = new NBTTagCompound();
+            chunk.setInteger("X", entry.getKey().chunkXPos);
+            chunk.setInteger("Z", entry.getKey().chunkZPos);
+            chunk.setIntArray("Placements", Arrays.copyOf(entry.getValue().placements, entry.getValue().size));
+            chunks.appendTag(chunk);
+        }
+        compound.setTag("Chunks", chunks);
+        return compound;
+    }
+
+    private static final class Spill {
+
+        private int[] placements;
+        private int size;
+
+        private Spill(int[] placements, int size) {
+            this.placements = placements;
+            this.size = size;
+        }
+
+        private void add(int placement) {
+            if (this.size == this.placements.length) {
+                this.placements = Arrays.copyOf(this.placements, Math.max(16, this.size << 1));
+            }
+            this.placements[this.size++] = placement;
+        }
+
+    }
+
+}
@@ -0,0 +1,204 @@
+/*
+ * This file is part of unnamed, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2017, Jamie Mansfield <https://www.jamierocks.uk/>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package uk.jamierocks.mc.unnamed.world;
+
+import net.minecraft.util.math.MathHelper;
+
+import javax.annotation.Nullable;
+
+/**
+ * Plans the positions of ore veins, without touching the world.
+ *
+ * The planner draws from the given {@link OreRandom} in exactly the same order as
+ * {@code BiomeDecorator#genStandardOre1} and {@code WorldGenMinable#generate}, so
+ * that - with {@link OreRandom#vanilla()} - writing the resulting {@link OrePlan}
+ * gives the same world as the vanilla generators would.
+ *
+ * Planning allocates nothing, other than to grow the plan.
+ */
+public final class OreVeinPlanner {
+
+    /**
+     * A filter of the areas of the world in which an ore could replace anything.
+     * Veins that lie entirely outside of these areas are skipped.
+     */
+    @FunctionalInterface
+    public interface AreaFilter {
+
+        /**
+         * Gets whether anything within the given box could be replaced by an ore.
+         * This may give false positives, but never false negatives.
+         *
+         * @param minX The minimum x coordinate, inclusive
+         * @param minY The minimum y coordinate, inclusive
+         * @param minZ The minimum z coordinate, inclusive
+         * @param maxX The maximum x coordinate, inclusive
+         * @param maxY The maximum y coordinate, inclusive
+         * @param maxZ The maximum z coordinate, inclusive
+         * @return {@code true} if anything could be replaced
+         */
+        boolean mayReplace(int minX, int minY, int minZ, int maxX, int maxY, int maxZ);
+
+    }
+
+    // adapted from BiomeDecorator#genStandardOre1(World, Random, int, WorldGenerator, int, int)
+    /**
+     * Plans the given number of veins, spread randomly through the chunk.
+     *
+     * @param random The random
+     * @param blockX The x coordinate of the first block in the chunk
+     * @param blockZ The z coordinate of the first block in the chunk
+     * @param ore The index of the ore to be placed
+     * @param veinSize The number of blocks in each vein
+     * @param veinCount The number of veins
+     * @param minHeight The minimum height
+     * @param maxHeight The maximum height
+     * @param plan The plan to add to
+     */
+    public static void planStandardOre(OreRandom random, int blockX, int blockZ, int ore, int veinSize, int veinCount,
+            int minHeight, int maxHeight, OrePlan plan) {
+        planStandardOre(random, blockX, blockZ, ore, veinSize, veinCount, minHeight, maxHeight, plan, null);
+    }
+
+    /**
+     * Plans the given number of veins, spread randomly through the chunk, skipping
+     * those veins that lie entirely outside of the given filter.
+     *
+     * @param random The random
+     * @param blockX The x coordinate of the first block in the chunk
+     * @param blockZ The z coordinate of the first block in the chunk
+     * @param ore The index of the ore to be placed
+     * @param veinSize The number of blocks in each vein
+     * @param veinCount The number of veins
+     * @param minHeight The minimum height
+     * @param maxHeight The maximum height
+     * @param plan The plan to add to
+     * @param filter The filter, or {@code null} to plan every vein
+     */
+    public static void planStandardOre(OreRandom random, int blockX, int blockZ, int ore, int veinSize, int veinCount,
+            int minHeight, int maxHeight, OrePlan plan, @Nullable AreaFilter filter) {
+        if (maxHeight < minHeight) {
+            int i = minHeight;
+            minHeight = maxHeight;
+            maxHeight = i;
+        } else if (maxHeight == minHeight) {
+            if (minHeight < 255) {
+                ++maxHeight;
+            } else {
+                --minHeight;
+            }
+        }
+
+        for (int j = 0; j < veinCount; ++j) {
+            final int x = blockX + random.nextInt(16);
+            final int y = random.nextInt(maxHeight - minHeight) + minHeight;
+            final int z = blockZ + random.nextInt(16);
+            planVein(random, x, y, z, ore, veinSize, plan, filter);
+        }
+    }
+
+    // adapted from WorldGenMinable#generate(World, Random, BlockPos)
+    /**
+     * Plans a single vein at the given position.
+     *
+     * @param random The random
+     * @param x The x coordinate
+     * @param y The y coordinate
+     * @param z The z coordinate
+     * @param ore The index of the ore to be placed
+     * @param veinSize The number of blocks in the vein
+     * @param plan The plan to add to
+     * @param filter The filter, or {@code null} to always plan the vein
+     */
+    public static void planVein(OreRandom random, int x, int y, int z, int ore, int veinSize, OrePlan plan,
+            @Nullable AreaFilter filter) {
+        final float f = random.nextFloat() * (float) Math.PI;
+        final double d0 = (double) ((float) (x + 8) + MathHelper.sin(f) * (float) veinSize / 8.0F);
+        final double d1 = (double) ((float) (x + 8) - MathHelper.sin(f) * (float) veinSize / 8.0F);
+        final double d2 = (double) ((float) (z + 8) + MathHelper.cos(f) * (float) veinSize / 8.0F);
+        final double d3 = (double) ((float) (z + 8) - MathHelper.cos(f) * (float) veinSize / 8.0F);
+        final double d4 = (double) (y + random.nextInt(3) - 2);
+        final double d5 = (double) (y + random.nextInt(3) - 2);
+
+        if (filter != null) {
+            // the widest the vein can be, from its centre line
+            final double radius = (double) veinSize / 16.0D + 1.0D;
+            if (!filter.mayReplace(
+                    MathHelper.floor(Math.min(d0, d1) - radius), MathHelper.floor(Math.min(d4, d5) - radius),
+                    MathHelper.floor(Math.min(d2, d3) - radius), MathHelper.floor(Math.max(d0, d1) + radius),
+                    MathHelper.floor(Math.max(d4, d5) + radius), MathHelper.floor(Math.max(d2, d3) + radius))) {
+                // the draws must still be made, to keep the following veins the same
+                for (int i = 0; i < veinSize; ++i) {
+                    random.nextDouble();
+                }
+                plan.endVein();
+                return;
+            }
+        }
+
+        for (int i = 0; i < veinSize; ++i) {
+            final float f1 = (float) i / (float) veinSize;
+            final double d6 = d0 + (d1 - d0) * (double) f1;
+            final double d7 = d4 + (d5 - d4) * (double) f1;
+            final double d8 = d2 + (d3 - d2) * (double) f1;
+            final double d9 = random.nextDouble() * (double) veinSize / 16.0D;
+            final double d10 = (double) (MathHelper.sin((float) Math.PI * f1) + 1.0F) * d9 + 1.0D;
+            final double d11 = (double) (MathHelper.sin((float) Math.PI * f1) + 1.0F) * d9 + 1.0D;
+            final int j = MathHelper.floor(d6 - d10 / 2.0D);
+            final int k = MathHelper.floor(d7 - d11 / 2.0D);
+            final int l = MathHelper.floor(d8 - d10 / 2.0D);
+            final int i1 = MathHelper.floor(d6 + d10 / 2.0D);
+            final int j1 = MathHelper.floor(d7 + d11 / 2.0D);
+            final int k1 = MathHelper.floor(d8 + d10 / 2.0D);
+
+            for (int l1 = j; l1 <= i1; ++l1) {
+                final double d12 = ((double) l1 + 0.5D - d6) / (d10 / 2.0D);
+
+                if (d12 * d12 < 1.0D) {
+                    for (int i2 = k; i2 <= j1; ++i2) {
+                        final double d13 = ((double) i2 + 0.5D - d7) / (d11 / 2.0D);
+
+                        if (d12 * d12 + d13 * d13 < 1.0D) {
+                            for (int j2 = l; j2 <= k1; ++j2) {
+                                final double d14 = ((double) j2 + 0.5D - d8) / (d10 / 2.0D);
+
+                                if (d12 * d12 + d13 * d13 + d14 * d14 < 1.0D) {
+                                    plan.add(l1, i2, j2, ore);
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+        }
+
+        plan.endVein();
+    }
+
+    private OreVeinPlanner() {
+    }
+
+}
@@ -0,0 +1,247 @@
+/*
+ * This file is part of unnamed, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2017, Jamie Mansfield <https://www.jamierocks.uk/>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package uk.jamierocks.mc.unnamed.world;
+
+import com.google.common.base.Predicate;
+import net.minecraft.block.BlockStone;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.init.Blocks;
+import net.minecraft.server.management.PlayerChunkMapEntry;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import net.minecraft.world.WorldServer;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.storage.ExtendedBlockStorage;
+
+import javax.annotation.Nullable;
+
+/**
+ * Writes an {@link OrePlan} into the world, straight into the {@link ExtendedBlockStorage}
+ * sections of the chunks it touches.
+ *
+ * Unlike {@link World#setBlockState(BlockPos, IBlockState, int)}, this doesn't look up the
+ * chunk, check lighting or notify neighbours for every block - which isn't needed when
+ * replacing stone with ore during population. Where a placement would change the lighting,
+ * or involves a tile entity, the writer falls back to {@link World#setBlockState}.
+ */
+public final class OreVeinWriter {
+
+    /**
+     * The default target of ore veins, natural stone (stone, granite, diorite and andesite).
+     */
+    // adapted from WorldGenMinable.StonePredicate
+    public static final Predicate<IBlockState> NATURAL_STONE = state ->
+            state != null && state.getBlock() == Blocks.STONE && state.getValue(BlockStone.VARIANT).isNatural();
+
+    /**
+     * Writes the given plan into the world, loading any chunks it touches.
+     *
+     * @param world The world
+     * @param plan The plan to write
+     * @param ores The states of the ores, by ore index
+     * @param target The predicate for the states the ores may replace
+     * @param stats The statistics to record to, or {@code null}
+     * @return The number of blocks placed
+     */
+    public static int write(World world, OrePlan plan, IBlockState[] ores, Predicate<IBlockState> target,
+            @Nullable OreWriteStats stats) {
+        return write(world, null, null, plan, ores, target, stats);
+    }
+
+    /**
+     * Writes the given plan into the world, without loading any chunks. Placements
+     * in chunks that aren't loaded are spilled into the given spill buffer.
+     *
+     * @param world The world
+     * @param spill The spill buffer
+     * @param plan The plan to write
+     * @param ores The states of the ores, by ore index
+     * @param target The predicate for the states the ores may replace
+     * @param stats The statistics to record to, or {@code null}
+     * @return The number of blocks placed
+     */
+    public static int write(World world, OreSpillData spill, OrePlan plan, IBlockState[] ores, Predicate<IBlockState> target,
+            @Nullable OreWriteStats stats) {
+        return write(world, null, spill, plan, ores, target, stats);
+    }
+
+    /**
+     * Writes the given plan into the given chunk, ignoring any placements outside of it.
+     *
+     * @param world The world
+     * @param chunk The chunk
+     * @param plan The plan to write
+     * @param ores The states of the ores, by ore index
+     * @param target The predicate for the states the ores may replace
+     * @param stats The statistics to record to, or {@code null}
+     * @return The number of blocks placed
+     */
+    public static int write(World world, Chunk chunk, OrePlan plan, IBlockState[] ores, Predicate<IBlockState> target,
+            @Nullable OreWriteStats stats) {
+        return write(world, chunk, null, plan, ores, target, stats);
+    }
+
+    private static int write(World world, @Nullable Chunk only, @Nullable OreSpillData spill, OrePlan plan, IBlockState[] ores,
+            Predicate<IBlockState> target, @Nullable OreWriteStats stats) {
+        final BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos();
+        // replaceable states can be tested by palette id, rather than by state
+        final SectionTargets targets = target instanceof ReplaceableStates && BlockStateContainers.isSupported() ?
+                new SectionTargets((ReplaceableStates) target) : null;
+        Chunk chunk = null;
+        ExtendedBlockStorage[] sections = null;
+        PlayerChunkMapEntry watcher = null;
+        boolean dirty = false;
+        int placed = 0;
+        int vein = 0;
+        boolean veinPlaced = false;
+
+        for (int i = 0; i < plan.size(); i++) {
+            if (stats != null) {
+                while (vein < plan.getVeinCount() && i >= plan.getVeinEnd(vein)) {
+                    if (veinPlaced) {
+                        stats.placeVein();
+                    }
+                    veinPlaced = false;
+                    vein++;
+                }
+            }
+
+            final long packed = plan.getPosition(i);
+            final int x = OrePlan.unpackX(packed);
+            final int y = OrePlan.unpackY(packed);
+            final int z = OrePlan.unpackZ(packed);
+            if (y < 0 || y >= 256) {
+                continue;
+            }
+
+            final int chunkX = x >> 4;
+            final int chunkZ = z >> 4;
+            if (chunk == null || chunk.xPosition != chunkX || chunk.zPosition != chunkZ) {
+                if (only != null) {
+                    if (only.xPosition != chunkX || only.zPosition != chunkZ) {
+                        continue;
+                    }
+                } else if (spill != null && world.getChunkProvider().getLoadedChunk(chunkX, chunkZ) == null) {
+                    spill.spill(chunkX, chunkZ, x, y, z, ores[plan.getOre(i)]);
+                    continue;
+                }
+
+                if (dirty) {
+                    chunk.setChunkModified();
+                }
+                chunk = only != null ? only : world.getChunkFromChunkCoords(chunkX, chunkZ);
+                sections = chunk.getBlockStorageArray();
+                watcher = getWatcher(world, chunkX, chunkZ);
+                dirty = false;
+                if (stats != null) {
+                    stats.touch(chunkX, chunkZ);
+                }
+            }
+
+            pos.setPos(x, y, z);
+            final ExtendedBlockStorage section = sections[y >> 4];
+            final byte classification = targets != null && section != Chunk.NULL_BLOCK_STORAGE ?
+                    targets.classify(section, x & 15, y & 15, z & 15) : ReplaceableStates.DEFERRED;
+            if (classification == ReplaceableStates.IRREPLACEABLE) {
+                continue;
+            }
+            final IBlockState state = section == Chunk.NULL_BLOCK_STORAGE ?
+                    Blocks.AIR.getDefaultState() : section.get(x & 15, y & 15, z & 15);
+            if (classification == ReplaceableStates.DEFERRED && !state.getBlock().isReplaceableOreGen(state, world, pos, target)) {
+                continue;
+            }
+
+            final IBlockState ore = ores[plan.getOre(i)];
+            if (section == Chunk.NULL_BLOCK_STORAGE || requiresUpdate(state, ore)) {
+                // the chunk may still be loading, so don't go through the world for it
+                if (only != null ? only.setBlockState(pos, ore) != null : world.setBlockState(pos, ore, 2)) {
+                    placed++;
+                    veinPlaced = true;
+                }
+                continue;
+            }
+
+            section.set(x & 15, y & 15, z & 15, ore);
+            if (watcher != null) {
+                watcher.blockChanged(x & 15, y, z & 15);
+            }
+            dirty = true;
+            placed++;
+            veinPlaced = true;
+        }
+
+        if (dirty) {
+            chunk.setChunkModified();
+        }
+        if (stats != null) {
+            for (; vein < plan.getVeinCount(); vein++) {
+                if (veinPlaced) {
+                    stats.placeVein();
+                }
+                veinPlaced = false;
+            }
+            stats.addPlaced(placed);
+        }
+        return placed;
+    }
+
+    /**
+     * Gets whether replacing the given state with the given ore needs the full
+     * {@link World#setBlockState(BlockPos, IBlockState, int)} treatment.
+     *
+     * @param state The state being replaced
+     * @param ore The ore
+     * @return {@code true} if the lighting or tile entities would change
+     */
+    private static boolean requiresUpdate(IBlockState state, IBlockState ore) {
+        return state.getLightOpacity() != ore.getLightOpacity()
+                || state.getLightValue() != ore.getLightValue()
+                || state.getBlock().hasTileEntity(state)
+                || ore.getBlock().hasTileEntity(ore);
+    }
+
+    /**
+     * Gets the player chunk map entry for the given chunk, if the chunk has
+     * already been sent to players - in which case they need to be told of
+     * any changes.
+     *
+     * @param world The world
+     * @param chunkX The x coordinate of the chunk
+     * @param chunkZ The z coordinate of the chunk
+     * @return The entry, or {@code null}
+     */
+    private static PlayerChunkMapEntry getWatcher(World world, int chunkX, int chunkZ) {
+        if (!(world instanceof WorldServer)) {
+            return null;
+        }
+        final PlayerChunkMapEntry entry = ((WorldServer) world).getPlayerChunkMap().getEntry(chunkX, chunkZ);
+        return entry != null && entry.isSentToPlayers() ? entry : null;
+    }
+
+    private OreVeinWriter() {
+    }
+
+}
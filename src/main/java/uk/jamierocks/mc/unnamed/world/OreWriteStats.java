@@ -0,0 +1,109 @@
+/*
+ * This file is part of unnamed, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2017, Jamie Mansfield <https://www.jamierocks.uk/>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package uk.jamierocks.mc.unnamed.world;
+
+/**
+ * The statistics of writing an {@link OrePlan}, reset and reused for each chunk.
+ */
+public final class OreWriteStats {
+
+    private static final int MAX_TRACKED_CHUNKS = 16;
+
+    private int placed;
+    private int veinsPlaced;
+    private final long[] chunks = new long[MAX_TRACKED_CHUNKS];
+    private int chunkCount;
+
+    /**
+     * Resets the statistics, for the next chunk.
+     */
+    public void reset() {
+        this.placed = 0;
+        this.veinsPlaced = 0;
+        this.chunkCount = 0;
+    }
+
+    void addPlaced(int placed) {
+        this.placed += placed;
+    }
+
+    void placeVein() {
+        this.veinsPlaced++;
+    }
+
+    void touch(int chunkX, int chunkZ) {
+        final long key = key(chunkX, chunkZ);
+        for (int i = 0; i < this.chunkCount; i++) {
+            if (this.chunks[i] == key) {
+                return;
+            }
+        }
+        if (this.chunkCount < this.chunks.length) {
+            this.chunks[this.chunkCount++] = key;
+        }
+    }
+
+    /**
+     * Gets the number of blocks placed.
+     *
+     * @return The number of blocks placed
+     */
+    public int getPlaced() {
+        return this.placed;
+    }
+
+    /**
+     * Gets the number of veins that placed at least one block.
+     *
+     * @return The number of veins placed
+     */
+    public int getVeinsPlaced() {
+        return this.veinsPlaced;
+    }
+
+    /**
+     * Gets the number of chunks written to, other than the given chunk.
+     *
+     * @param chunkX The x coordinate of the chunk being populated
+     * @param chunkZ The z coordinate of the chunk being populated
+     * @return The number of neighbouring chunks touched
+     */
+    public int getNeighboursTouched(int chunkX, int chunkZ) {
+        final long key = key(chunkX, chunkZ);
+        int neighbours = this.chunkCount;
+        for (int i = 0; i < this.chunkCount; i++) {
+            if (this.chunks[i] == key) {
+                neighbours--;
+            }
+        }
+        return neighbours;
+    }
+
+    private static long key(int chunkX, int chunkZ) {
+        return (long) chunkX & 0xFFFFFFFFL | ((long) chunkZ & 0xFFFFFFFFL) << 32;
+    }
+
+}
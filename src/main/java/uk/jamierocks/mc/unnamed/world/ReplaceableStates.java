@@ -0,0 +1,189 @@
+/*
+ * This file is part of unnamed, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2017, Jamie Mansfield <https://www.jamierocks.uk/>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package uk.jamierocks.mc.unnamed.world;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.google.common.base.Predicate;
+import net.minecraft.block.Block;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.init.Blocks;
+import net.minecraft.item.ItemStack;
+import net.minecraft.util.ResourceLocation;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.IBlockAccess;
+import net.minecraftforge.oredict.OreDictionary;
+
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.Nullable;
+
+/**
+ * The block states that ores may replace, compiled into a bitset indexed by the
+ * global block state id. Those reading the world by palette id, such as the
+ * {@link OreVeinWriter}, test an id with a single lookup however many states there
+ * are, through {@link #classify(int)}.
+ *
+ * <p>Targets are given as {@code modid:name}, for every state of the block,
+ * {@code modid:name:meta}, for the states of the block with that meta, or
+ * {@code ore:name}, for the blocks registered to that name in the ore dictionary.</p>
+ *
+ * <p>The bitset must be rebuilt, using {@link #remap()}, whenever the global block
+ * state ids change.</p>
+ */
+public final class ReplaceableStates implements Predicate<IBlockState> {
+
+    /**
+     * The prefix of targets that are names in the ore dictionary.
+     */
+    public static final String ORE_PREFIX = "ore:";
+
+    static final byte IRREPLACEABLE = 1;
+    static final byte REPLACEABLE = 2;
+    // the block overrides Block#isReplaceableOreGen, so must be asked for each position
+    static final byte DEFERRED = 3;
+
+    private Set<IBlockState> states = Collections.emptySet();
+    private BitSet ids = new BitSet();
+    private BitSet deferred = new BitSet();
+
+    /**
+     * Compiles the given targets, replacing any previous targets.
+     *
+     * @param targets The targets
+     */
+    public void compile(Iterable<String> targets) {
+        final Set<IBlockState> states = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (final String target : targets) {
+            if (target.startsWith(ORE_PREFIX)) {
+                for (final ItemStack stack : OreDictionary.getOres(target.substring(ORE_PREFIX.length()), false)) {
+                    final Block block = Block.getBlockFromItem(stack.getItem());
+                    if (block != Blocks.AIR) {
+                        addStates(states, block, stack.getMetadata());
+                    }
+                }
+            } else {
+                final int metaIndex = target.indexOf(':') != target.lastIndexOf(':') ? target.lastIndexOf(':') : -1;
+                final ResourceLocation name = new ResourceLocation(metaIndex == -1 ? target : target.substring(0, metaIndex));
+                checkArgument(Block.REGISTRY.containsKey(name), "The block %s does not exist!", name);
+
+                addStates(states, Block.REGISTRY.getObject(name),
+                        metaIndex == -1 ? OreDictionary.WILDCARD_VALUE : Integer.parseInt(target.substring(metaIndex + 1)));
+            }
+        }
+        this.states = states;
+        this.remap();
+    }
+
+    /**
+     * Rebuilds the bitset from the current global block state ids.
+     */
+    public void remap() {
+        final BitSet ids = new BitSet();
+        for (final IBlockState state : this.states) {
+            final int id = Block.BLOCK_STATE_IDS.get(state);
+            if (id >= 0) {
+                ids.set(id);
+            }
+        }
+
+        final BitSet deferred = new BitSet();
+        final Map<Class<?>, Boolean> deferring = new HashMap<>();
+        for (final Block block : Block.REGISTRY) {
+            if (defersReplacement(deferring, block.getClass())) {
+                for (final IBlockState state : block.getBlockState().getValidStates()) {
+                    final int id = Block.BLOCK_STATE_IDS.get(state);
+                    if (id >= 0) {
+                        deferred.set(id);
+                    }
+                }
+            }
+        }
+        this.ids = ids;
+        this.deferred = deferred;
+    }
+
+    /**
+     * Gets the number of states that may be replaced.
+     *
+     * @return The number of states
+     */
+    public int size() {
+        return this.ids.cardinality();
+    }
+
+    /**
+     * Classifies the state with the given global id, as either {@link #REPLACEABLE},
+     * {@link #IRREPLACEABLE} or {@link #DEFERRED} - where the state's block must be
+     * asked, through {@link Block#isReplaceableOreGen(IBlockState, IBlockAccess, BlockPos, Predicate)}.
+     *
+     * @param id The global id of the state
+     * @return The classification
+     */
+    byte classify(int id) {
+        if (id < 0) {
+            return IRREPLACEABLE;
+        }
+        if (this.deferred.get(id)) {
+            return DEFERRED;
+        }
+        return this.ids.get(id) ? REPLACEABLE : IRREPLACEABLE;
+    }
+
+    @Override
+    public boolean apply(@Nullable IBlockState state) {
+        if (state == null) {
+            return false;
+        }
+        final int id = Block.BLOCK_STATE_IDS.get(state);
+        return id >= 0 && this.ids.get(id);
+    }
+
+    private static boolean defersReplacement(Map<Class<?>, Boolean> deferring, Class<?> blockClass) {
+        return deferring.computeIfAbsent(blockClass, c -> {
+            try {
+                return c.getMethod("isReplaceableOreGen", IBlockState.class, IBlockAccess.class, BlockPos.class, Predicate.class)
+                        .getDeclaringClass() != Block.class;
+            } catch (NoSuchMethodException ex) {
+                return true;
+            }
+        });
+    }
+
+    private static void addStates(Set<IBlockState> states, Block block, int meta) {
+        for (final IBlockState state : block.getBlockState().getValidStates()) {
+            if (meta == OreDictionary.WILDCARD_VALUE || block.getMetaFromState(state) == meta) {
+                states.add(state);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,165 @@
+/*
+ * This file is part of unnamed, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2017, Jamie Mansfield <https://www.jamierocks.uk/>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package uk.jamierocks.mc.unnamed.world;
+
+import com.google.common.base.Predicate;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.BlockStateContainer;
+import net.minecraft.world.chunk.BlockStatePaletteRegistry;
+import net.minecraft.world.chunk.Chunk;
+import net.minecraft.world.chunk.IBlockStatePalette;
+import net.minecraft.world.chunk.storage.ExtendedBlockStorage;
+
+import javax.annotation.Nullable;
+
+/**
+ * An {@link OreVeinPlanner.AreaFilter} that reads the palette of each of the world's
+ * chunk sections, to find those sections that can't contain a replaceable state.
+ *
+ * <p>Each section's palette is read at most once for each chunk planned, rather
+ * than testing every position of every vein. Chunks that aren't loaded are never
+ * loaded, anything within them may be replaced.</p>
+ */
+public final class SectionPalettes implements OreVeinPlanner.AreaFilter {
+
+    private static final int MAX_CACHED_CHUNKS = 16;
+    private static final int ALL_SECTIONS = 0xFFFF;
+
+    /**
+     * Gets whether the palettes of chunk sections can be read, if not this filter
+     * will never skip anything.
+     *
+     * @return {@code true} if palettes can be read
+     */
+    public static boolean isSupported() {
+        return BlockStateContainers.isSupported();
+    }
+
+    private final Predicate<IBlockState> target;
+    private final BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos();
+    private final long[] chunks = new long[MAX_CACHED_CHUNKS];
+    private final int[] masks = new int[MAX_CACHED_CHUNKS];
+    private int chunkCount;
+    private World world;
+
+    public SectionPalettes(Predicate<IBlockState> target) {
+        this.target = target;
+    }
+
+    /**
+     * Resets the filter, for the next chunk to be planned. The palettes of the
+     * previous chunk are forgotten, as the world may have since changed.
+     *
+     * @param world The world, or {@code null} to release the previous world
+     */
+    public void reset(@Nullable World world) {
+        this.world = world;
+        this.chunkCount = 0;
+    }
+
+    @Override
+    public boolean mayReplace(int minX, int minY, int minZ, int maxX, int maxY, int maxZ) {
+        if (this.world == null || !BlockStateContainers.isSupported()) {
+            return true;
+        }
+
+        final int sections = sectionRange(minY, maxY);
+        if (sections == 0) {
+            return false;
+        }
+        for (int chunkX = minX >> 4; chunkX <= maxX >> 4; chunkX++) {
+            for (int chunkZ = minZ >> 4; chunkZ <= maxZ >> 4; chunkZ++) {
+                if ((this.getMask(chunkX, chunkZ) & sections) != 0) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private int getMask(int chunkX, int chunkZ) {
+        final long key = (long) chunkX << 32 | chunkZ & 0xFFFFFFFFL;
+        for (int i = 0; i < this.chunkCount; i++) {
+            if (this.chunks[i] == key) {
+                return this.masks[i];
+            }
+        }
+
+        final Chunk chunk = this.world.getChunkProvider().getLoadedChunk(chunkX, chunkZ);
+        final int mask = chunk != null ? this.scan(chunk) : ALL_SECTIONS;
+        if (this.chunkCount < MAX_CACHED_CHUNKS) {
+            this.chunks[this.chunkCount] = key;
+            this.masks[this.chunkCount++] = mask;
+        }
+        return mask;
+    }
+
+    private int scan(Chunk chunk) {
+        final ExtendedBlockStorage[] sections = chunk.getBlockStorageArray();
+        int mask = 0;
+        for (int i = 0; i < sections.length; i++) {
+            final ExtendedBlockStorage section = sections[i];
+            // sections that are empty, or missing, are only air
+            if (section != Chunk.NULL_BLOCK_STORAGE && !section.isEmpty()) {
+                this.pos.setPos(chunk.xPosition << 4, section.getYLocation(), chunk.zPosition << 4);
+                if (this.mayContainTarget(section.getData())) {
+                    mask |= 1 << i;
+                }
+            }
+        }
+        return mask;
+    }
+
+    private boolean mayContainTarget(BlockStateContainer data) {
+        final IBlockStatePalette palette = BlockStateContainers.getPalette(data);
+
+        // the global palette has every state, so can't be searched
+        if (palette == null || palette instanceof BlockStatePaletteRegistry) {
+            return true;
+        }
+
+        // palettes give ids from 0, until the first id that isn't used
+        IBlockState state;
+        for (int id = 0; (state = palette.getStateForId(id)) != null; id++) {
+            if (state.getBlock().isReplaceableOreGen(state, this.world, this.pos, this.target)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int sectionRange(int minY, int maxY) {
+        final int min = Math.max(minY, 0) >> 4;
+        final int max = Math.min(maxY, 255) >> 4;
+        if (min > max) {
+            return 0;
+        }
+        return (ALL_SECTIONS >>> (15 - max)) & ~((1 << min) - 1);
+    }
+
+}
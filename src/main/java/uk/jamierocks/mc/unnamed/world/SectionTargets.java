@@ -0,0 +1,104 @@
+/*
+ * This file is part of unnamed, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2017, Jamie Mansfield <https://www.jamierocks.uk/>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package uk.jamierocks.mc.unnamed.world;
+
+import net.minecraft.block.Block;
+import net.minecraft.block.state.IBlockState;
+import net.minecraft.util.BitArray;
+import net.minecraft.world.chunk.BlockStateContainer;
+import net.minecraft.world.chunk.BlockStatePaletteRegistry;
+import net.minecraft.world.chunk.IBlockStatePalette;
+import net.minecraft.world.chunk.storage.ExtendedBlockStorage;
+
+import java.util.Arrays;
+
+import javax.annotation.Nullable;
+
+/**
+ * Classifies the positions of chunk sections against {@link ReplaceableStates}, by
+ * the palette id each section stores for the position, so that a test is an array
+ * lookup rather than a lookup of the state's global id.
+ *
+ * Sections using the global palette store global ids, which are classified directly.
+ * Any other palette is classified lazily, one palette id at a time, for as long as
+ * the section keeps the same palette.
+ */
+final class SectionTargets {
+
+    // palettes other than the global palette never hold more than 8 bits of ids
+    private static final int MAX_LOCAL_IDS = 256;
+
+    private final ReplaceableStates states;
+    private final byte[] byPaletteId = new byte[MAX_LOCAL_IDS];
+    @Nullable private BitArray storage;
+    @Nullable private IBlockStatePalette palette;
+    private boolean global;
+
+    SectionTargets(ReplaceableStates states) {
+        this.states = states;
+    }
+
+    /**
+     * Classifies the state at the given position of the given section.
+     *
+     * @param section The section
+     * @param x The x coordinate within the section
+     * @param y The y coordinate within the section
+     * @param z The z coordinate within the section
+     * @return The classification, see {@link ReplaceableStates#classify(int)}
+     */
+    byte classify(ExtendedBlockStorage section, int x, int y, int z) {
+        final BlockStateContainer data = section.getData();
+        // the storage is replaced whenever the palette is, or the section changes
+        final BitArray storage = BlockStateContainers.getStorage(data);
+        if (storage == null) {
+            return ReplaceableStates.DEFERRED;
+        }
+        if (storage != this.storage) {
+            this.storage = storage;
+            this.palette = BlockStateContainers.getPalette(data);
+            this.global = this.palette instanceof BlockStatePaletteRegistry;
+            Arrays.fill(this.byPaletteId, (byte) 0);
+        }
+
+        final int id = storage.getAt(y << 8 | z << 4 | x);
+        if (this.global) {
+            return this.states.classify(id);
+        }
+        if (this.palette == null || id >= MAX_LOCAL_IDS) {
+            return ReplaceableStates.DEFERRED;
+        }
+
+        byte classification = this.byPaletteId[id];
+        if (classification == 0) {
+            final IBlockState state = this.palette.getStateForId(id);
+            classification = state != null ? this.states.classify(Block.BLOCK_STATE_IDS.get(state)) : ReplaceableStates.IRREPLACEABLE;
+            this.byPaletteId[id] = classification;
+        }
+        return classification;
+    }
+
+}
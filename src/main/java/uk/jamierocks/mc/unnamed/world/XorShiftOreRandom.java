@@ -0,0 +1,73 @@
+/*
+ * This file is part of unnamed, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2017, Jamie Mansfield <https://www.jamierocks.uk/>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package uk.jamierocks.mc.unnamed.world;
+
+import java.util.Random;
+
+/**
+ * An {@link OreRandom} using a xorshift64* generator, which - unlike {@link Random} -
+ * needs neither synchronisation nor compare-and-swap on every draw.
+ */
+final class XorShiftOreRandom implements OreRandom {
+
+    private long state;
+
+    @Override
+    public void seed(Random chunkRandom) {
+        // mix the seed with splitmix64, as the state must never be zero
+        long seed = chunkRandom.nextLong() + 0x9E3779B97F4A7C15L;
+        seed = (seed ^ seed >>> 30) * 0xBF58476D1CE4E5B9L;
+        seed = (seed ^ seed >>> 27) * 0x94D049BB133111EBL;
+        seed ^= seed >>> 31;
+        this.state = seed != 0 ? seed : 0x9E3779B97F4A7C15L;
+    }
+
+    private long next() {
+        long x = this.state;
+        x ^= x >>> 12;
+        x ^= x << 25;
+        x ^= x >>> 27;
+        this.state = x;
+        return x * 0x2545F4914F6CDD1DL;
+    }
+
+    @Override
+    public int nextInt(int bound) {
+        // the bias of a multiply-shift is negligible for the small bounds used by ore generation
+        return (int) (((next() >>> 32) * bound) >>> 32);
+    }
+
+    @Override
+    public float nextFloat() {
+        return (next() >>> 40) * 0x1.0p-24f;
+    }
+
+    @Override
+    public double nextDouble() {
+        return (next() >>> 11) * 0x1.0p-53;
+    }
+
+}
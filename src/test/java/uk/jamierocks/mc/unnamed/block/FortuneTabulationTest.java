@@ -0,0 +1,163 @@
+/*
+ * This file is part of unnamed, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2017, Jamie Mansfield <https://www.jamierocks.uk/>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package uk.jamierocks.mc.unnamed.block;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Tests that the tabulated fortune quantities of {@link DropTable} are distributed
+ * exactly as those of {@link ItemDropBehaviour.Fortune#of(int, int)}, by enumerating
+ * every outcome of the random draws each makes.
+ */
+public final class FortuneTabulationTest {
+
+    private static final int MAX_FORTUNE = 5;
+    private static final int[][] RANGES = { { 1, 1 }, { 1, 3 }, { 2, 5 }, { 0, 2 }, { 0, 0 }, { 4, 9 } };
+
+    @Test
+    public void tabulatedMatchesTwoDraws() {
+        for (final int[] range : RANGES) {
+            final int[][] quantities = new int[MAX_FORTUNE + 1][];
+            final AliasTable[] distributions = new AliasTable[MAX_FORTUNE + 1];
+            DropTable.tabulateFortune(range[0], range[1], quantities, distributions);
+
+            for (int fortune = 1; fortune <= MAX_FORTUNE; fortune++) {
+                final Distribution expected = twoDraws(ItemDropBehaviour.Fortune.of(range[0], range[1]), fortune);
+                final Distribution actual = tabulated(quantities[fortune], distributions[fortune]);
+                assertEquals("Quantities " + range[0] + ".." + range[1] + " with fortune " + fortune,
+                        expected.probabilities(), actual.probabilities());
+            }
+        }
+    }
+
+    /**
+     * Enumerates every pair of fortune roll and base quantity the two-draw path may
+     * draw, each of which is equally likely.
+     */
+    private static Distribution twoDraws(ItemDropBehaviour.Fortune behaviour, int fortune) {
+        final Distribution distribution = new Distribution();
+        final ScriptedRandom random = new ScriptedRandom();
+        // the first draw is the fortune roll, the second the base quantity - should there be one
+        for (int roll = 0; roll < fortune + 2; roll++) {
+            for (int quantity = 0; ; quantity++) {
+                random.script(roll, quantity);
+                distribution.add(behaviour.getQuantityDroppedWithBonus(fortune, random), 1);
+                if (random.bounds.size() < 2 || quantity + 1 >= random.bounds.getLast()) {
+                    break;
+                }
+            }
+        }
+        return distribution;
+    }
+
+    /**
+     * Enumerates every value of the single draw the tabulated path makes, each of
+     * which is equally likely.
+     */
+    private static Distribution tabulated(int[] quantities, AliasTable table) {
+        final Distribution distribution = new Distribution();
+        final ScriptedRandom random = new ScriptedRandom();
+        random.script(0);
+        table.sample(random);
+        // a table of one outcome doesn't draw at all
+        final int bound = random.bounds.isEmpty() ? 1 : random.bounds.getFirst();
+        for (int draw = 0; draw < bound; draw++) {
+            random.script(draw);
+            distribution.add(quantities[table.sample(random)], 1);
+        }
+        return distribution;
+    }
+
+    /**
+     * A distribution of quantities, counted over equally likely outcomes.
+     */
+    private static final class Distribution {
+
+        private final Map<Integer, Long> counts = new HashMap<>();
+        private long total;
+
+        void add(int quantity, long count) {
+            this.counts.merge(quantity, count, Long::sum);
+            this.total += count;
+        }
+
+        /**
+         * Gets the probability of each quantity, as a reduced fraction, so that
+         * distributions are compared exactly.
+         */
+        Map<Integer, String> probabilities() {
+            final Map<Integer, String> probabilities = new HashMap<>();
+            for (final Map.Entry<Integer, Long> entry : this.counts.entrySet()) {
+                final long gcd = gcd(entry.getValue(), this.total);
+                probabilities.put(entry.getKey(), entry.getValue() / gcd + "/" + this.total / gcd);
+            }
+            return probabilities;
+        }
+
+        private static long gcd(long a, long b) {
+            return b == 0 ? a : gcd(b, a % b);
+        }
+
+    }
+
+    /**
+     * A random that gives the values it is scripted with, recording the bounds
+     * it is drawn with.
+     */
+    private static final class ScriptedRandom extends Random {
+
+        private final Deque<Integer> values = new ArrayDeque<>();
+        private final Deque<Integer> bounds = new ArrayDeque<>();
+
+        void script(int... values) {
+            this.values.clear();
+            this.bounds.clear();
+            for (final int value : values) {
+                this.values.add(value);
+            }
+        }
+
+        @Override
+        public int nextInt(int bound) {
+            this.bounds.add(bound);
+            final Integer value = this.values.poll();
+            if (value == null || value >= bound) {
+                throw new IllegalStateException("No value scripted below " + bound);
+            }
+            return value;
+        }
+
+    }
+
+}
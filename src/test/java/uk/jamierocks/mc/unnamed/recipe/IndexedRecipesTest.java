@@ -0,0 +1,145 @@
+/*
+ * This file is part of unnamed, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) 2017, Jamie Mansfield <https://www.jamierocks.uk/>
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ */
+
+package uk.jamierocks.mc.unnamed.recipe;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import net.minecraft.entity.player.EntityPlayer;
+import net.minecraft.init.Bootstrap;
+import net.minecraft.init.Items;
+import net.minecraft.inventory.Container;
+import net.minecraft.inventory.InventoryCrafting;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraft.item.crafting.ShapedRecipes;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Tests that {@link IndexedRecipes} matches a recipe in the same orientations
+ * vanilla's {@link ShapedRecipes} does - as it is, and mirrored - and no other.
+ */
+public final class IndexedRecipesTest {
+
+    @BeforeClass
+    public static void bootstrap() {
+        Bootstrap.register();
+    }
+
+    @Test
+    public void matchesRowOnlyHorizontally() {
+        // a b
+        final ShapedRecipes recipe = recipe(2, 1, Items.IRON_INGOT, Items.GOLD_INGOT);
+        final IndexedRecipes recipes = new IndexedRecipes();
+        assertTrue(recipes.add(recipe));
+
+        final InventoryCrafting inv = grid();
+        set(inv, 0, 0, Items.IRON_INGOT);
+        set(inv, 1, 0, Items.GOLD_INGOT);
+        assertMatches(recipes, recipe, inv);
+
+        // anywhere in the grid
+        inv.clear();
+        set(inv, 1, 2, Items.IRON_INGOT);
+        set(inv, 2, 2, Items.GOLD_INGOT);
+        assertMatches(recipes, recipe, inv);
+
+        // mirrored
+        inv.clear();
+        set(inv, 0, 0, Items.GOLD_INGOT);
+        set(inv, 1, 0, Items.IRON_INGOT);
+        assertMatches(recipes, recipe, inv);
+
+        // transposed, into a column
+        inv.clear();
+        set(inv, 0, 0, Items.IRON_INGOT);
+        set(inv, 0, 1, Items.GOLD_INGOT);
+        assertMisses(recipes, recipe, inv);
+    }
+
+    @Test
+    public void matchesSquareOnlyAsItIsOrMirrored() {
+        // a b
+        // c
+        final ShapedRecipes recipe = recipe(2, 2, Items.IRON_INGOT, Items.GOLD_INGOT, Items.DIAMOND, null);
+        final IndexedRecipes recipes = new IndexedRecipes();
+        assertTrue(recipes.add(recipe));
+
+        final InventoryCrafting inv = grid();
+        set(inv, 1, 1, Items.IRON_INGOT);
+        set(inv, 2, 1, Items.GOLD_INGOT);
+        set(inv, 1, 2, Items.DIAMOND);
+        assertMatches(recipes, recipe, inv);
+
+        // mirrored
+        inv.clear();
+        set(inv, 1, 0, Items.IRON_INGOT);
+        set(inv, 0, 0, Items.GOLD_INGOT);
+        set(inv, 1, 1, Items.DIAMOND);
+        assertMatches(recipes, recipe, inv);
+
+        // transposed
+        inv.clear();
+        set(inv, 0, 0, Items.IRON_INGOT);
+        set(inv, 0, 1, Items.GOLD_INGOT);
+        set(inv, 1, 0, Items.DIAMOND);
+        assertMisses(recipes, recipe, inv);
+    }
+
+    private static void assertMatches(IndexedRecipes recipes, ShapedRecipes recipe, InventoryCrafting inv) {
+        assertTrue("The vanilla recipe should match", recipe.matches(inv, null));
+        assertSame(recipe, recipes.find(inv));
+    }
+
+    private static void assertMisses(IndexedRecipes recipes, ShapedRecipes recipe, InventoryCrafting inv) {
+        assertFalse("The vanilla recipe shouldn't match", recipe.matches(inv, null));
+        assertSame(null, recipes.find(inv));
+    }
+
+    private static ShapedRecipes recipe(int width, int height, Item... items) {
+        final ItemStack[] stacks = new ItemStack[items.length];
+        for (int i = 0; i < items.length; i++) {
+            stacks[i] = items[i] != null ? new ItemStack(items[i]) : ItemStack.EMPTY;
+        }
+        return new ShapedRecipes(width, height, stacks, new ItemStack(Items.EMERALD));
+    }
+
+    private static InventoryCrafting grid() {
+        return new InventoryCrafting(new Container() {
+            @Override
+            public boolean canInteractWith(EntityPlayer player) {
+                return false;
+            }
+        }, 3, 3);
+    }
+
+    private static void set(InventoryCrafting inv, int column, int row, Item item) {
+        inv.setInventorySlotContents(column + row * inv.getWidth(), new ItemStack(item));
+    }
+
+}